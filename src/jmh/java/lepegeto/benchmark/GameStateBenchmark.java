@@ -0,0 +1,148 @@
+package lepegeto.benchmark;
+
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Owner;
+import lepegeto.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link GameState} API used by the user interface.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+
+    /**
+     * Four turns taking every figure back to its starting cell: the selections, then the targets of each turn.
+     */
+    private static final Position[][] CYCLE = {
+            {new Position(0, 0), new Position(0, 2), new Position(1, 0), new Position(1, 2)},
+            {new Position(4, 0), new Position(4, 2), new Position(3, 0), new Position(3, 2)},
+            {new Position(1, 0), new Position(1, 2), new Position(0, 0), new Position(0, 2)},
+            {new Position(3, 0), new Position(3, 2), new Position(4, 0), new Position(4, 2)},
+    };
+
+    private GameState state;
+    private GameState other;
+    private Position[] cells;
+
+    /**
+     * Creates the states and the positions of every cell.
+     */
+    @Setup
+    public void setUp() {
+        state = new GameState();
+        other = new GameState();
+        cells = new Position[25];
+        for (int i = 0; i < cells.length; ++i) {
+            cells[i] = new Position(i / 5, i % 5);
+        }
+    }
+
+    /**
+     * Looks up the owner of every cell.
+     *
+     * @param blackhole sink of the results
+     */
+    @Benchmark
+    public void owner(Blackhole blackhole) {
+        for (var cell : cells) {
+            Owner owner = state.owner(cell);
+            blackhole.consume(owner);
+        }
+    }
+
+    /**
+     * Checks whether every cell is free.
+     *
+     * @param blackhole sink of the results
+     */
+    @Benchmark
+    public void isFree(Blackhole blackhole) {
+        for (var cell : cells) {
+            blackhole.consume(state.isFree(cell));
+        }
+    }
+
+    /**
+     * Plays four turns through {@code addSelection}, {@code addGhost} and {@code endTurn}.
+     *
+     * @return whether the last turn has won the game
+     */
+    @Benchmark
+    public boolean turnCycle() {
+        boolean won = false;
+        for (var turn : CYCLE) {
+            state.addSelection(turn[0]);
+            state.addSelection(turn[1]);
+            state.addGhost(turn[2]);
+            state.addGhost(turn[3]);
+            won = state.endTurn();
+        }
+        return won;
+    }
+
+    /**
+     * Copies the state.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public GameState cloneState() {
+        return state.clone();
+    }
+
+    /**
+     * Compares two equal states.
+     *
+     * @return whether the states are equal
+     */
+    @Benchmark
+    public boolean equalsState() {
+        return state.equals(other);
+    }
+
+    /**
+     * Computes the hash code of the state.
+     *
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeState() {
+        return state.hashCode();
+    }
+
+    /**
+     * Maps every coordinate change of a step, and one invalid change, to a {@link Direction}.
+     *
+     * @param blackhole sink of the results
+     */
+    @Benchmark
+    public void directionOf(Blackhole blackhole) {
+        for (var direction : Direction.values()) {
+            blackhole.consume(Direction.of(direction.getRowChange(), direction.getColChange()));
+        }
+        try {
+            blackhole.consume(Direction.of(0, 0));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+}
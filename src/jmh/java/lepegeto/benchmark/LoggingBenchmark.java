@@ -0,0 +1,112 @@
+package lepegeto.benchmark;
+
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tinylog.Logger;
+import org.tinylog.TaggedLogger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of log calls at a disabled level, as made on the hot path of the model.
+ *
+ * <p>{@code eagerFormat} is the old style of {@link GameState#move}, formatting the message before the logger
+ * can check the level. {@code placeholders} and {@code guarded} are the lazy styles used now, and
+ * {@code baseline} is the same work without logging. {@code moveFigure} measures {@link GameState#move} itself.
+ * Run with {@code -Dtinylog.writer2.level=debug} to see the cost when the model is traced.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    private static final TaggedLogger LOG = Logger.tag("model");
+
+    private GameState state;
+    private Position position;
+    private Direction direction;
+
+    /**
+     * Creates the state and the logged arguments.
+     */
+    @Setup
+    public void setUp() {
+        state = new GameState();
+        position = new Position(2, 2);
+        direction = Direction.EAST;
+    }
+
+    /**
+     * Does the work of a move without logging.
+     *
+     * @return the moved position
+     */
+    @Benchmark
+    public Position baseline() {
+        position.setTarget(direction);
+        return position;
+    }
+
+    /**
+     * Formats the message with {@link String#format} and logs it at debug level.
+     *
+     * @return the moved position
+     */
+    @Benchmark
+    public Position eagerFormat() {
+        LOG.debug(String.format("%s is moved in direction %s", position.toString(), direction.toString()));
+        position.setTarget(direction);
+        return position;
+    }
+
+    /**
+     * Logs the message with placeholders at debug level.
+     *
+     * @return the moved position
+     */
+    @Benchmark
+    public Position placeholders() {
+        LOG.debug("{} is moved in direction {}", position, direction);
+        position.setTarget(direction);
+        return position;
+    }
+
+    /**
+     * Logs the message with placeholders at debug level if it is enabled.
+     *
+     * @return the moved position
+     */
+    @Benchmark
+    public Position guarded() {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} is moved in direction {}", position, direction);
+        }
+        position.setTarget(direction);
+        return position;
+    }
+
+    /**
+     * Moves a position through {@link GameState#move}, which logs the move.
+     *
+     * @return the moved position
+     */
+    @Benchmark
+    public Position moveFigure() {
+        state.move(direction, position);
+        return position;
+    }
+}
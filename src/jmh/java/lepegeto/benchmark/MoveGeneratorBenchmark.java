@@ -0,0 +1,51 @@
+package lepegeto.benchmark;
+
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the bitboard move generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGeneratorBenchmark {
+
+    private final Board board = new Board();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Lists the moves of the initial position.
+     *
+     * @return the number of moves
+     */
+    @Benchmark
+    public int generate() {
+        return MoveGenerator.generate(board, Player.BLUE, moves);
+    }
+
+    /**
+     * Counts the moves of the initial position.
+     *
+     * @return the number of moves
+     */
+    @Benchmark
+    public int count() {
+        return MoveGenerator.count(board.getBlue(), board.free());
+    }
+}
@@ -0,0 +1,106 @@
+package lepegeto.benchmark;
+
+import lepegeto.model.Board;
+import lepegeto.model.GameState;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import lepegeto.model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many random games can be played per second, through the {@link GameState} API
+ * and directly on a {@link Board}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomGameBenchmark {
+
+    /**
+     * The number of plies after which a game is stopped.
+     */
+    private static final int MAX_PLIES = 200;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final Board board = new Board();
+    private final Board initial = new Board();
+    private SplittableRandom random;
+
+    /**
+     * Seeds the random moves.
+     */
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+    }
+
+    /**
+     * Plays a random game by selecting figures and targets on a {@link GameState}.
+     *
+     * @return the number of plies played
+     */
+    @Benchmark
+    public int gameState() {
+        var state = new GameState();
+        int ply = 0;
+        for (; ply < MAX_PLIES; ++ply) {
+            int count = MoveGenerator.generate(state.getBoard(), state.getCurrentPlayer(), moves);
+            if (count == 0) {
+                break;
+            }
+            int move = moves[random.nextInt(count)];
+            var direction = Move.direction(move);
+            var first = new Position(Board.row(Move.first(move)), Board.col(Move.first(move)));
+            var second = new Position(Board.row(Move.second(move)), Board.col(Move.second(move)));
+            state.addSelection(first);
+            state.addSelection(second);
+            state.addGhost(first.getTarget(direction));
+            state.addGhost(second.getTarget(direction));
+            state.endTurn();
+            if (state.getBoard().isHome(state.getCurrentPlayer().other())) {
+                break;
+            }
+        }
+        return ply;
+    }
+
+    /**
+     * Plays a random game with {@link MoveGenerator} and {@link Board#apply}.
+     *
+     * @return the number of plies played
+     */
+    @Benchmark
+    public int board() {
+        board.copyFrom(initial);
+        var player = Player.BLUE;
+        int ply = 0;
+        for (; ply < MAX_PLIES; ++ply) {
+            int count = MoveGenerator.generate(board, player, moves);
+            if (count == 0) {
+                break;
+            }
+            board.apply(player, moves[random.nextInt(count)]);
+            if (board.isHome(player)) {
+                break;
+            }
+            player = player.other();
+        }
+        return ply;
+    }
+}
@@ -0,0 +1,229 @@
+package lepegeto.benchmark;
+
+import lepegeto.results.GameResult;
+import lepegeto.results.InMemoryResultStore;
+import lepegeto.results.JournalResultStore;
+import lepegeto.results.ResultManager;
+import lepegeto.results.ResultStore;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the throughput and the latency of the {@link ResultStore} backends, to choose the one of a deployment.
+ *
+ * <p>{@code memory} is the {@link InMemoryResultStore}, {@code h2} a {@link ResultManager} on an H2 file and
+ * {@code journal} a {@link JournalResultStore}, both in a temporary directory. Every measurement iteration starts
+ * from an empty store. {@code insert} stores one result at a time, as {@code ResultStore#insert} does, and is
+ * measured both as throughput and as a latency distribution; {@code insertBatch} stores batches of
+ * {@value #BATCH_SIZE}, as the {@code ResultRecorder} does. {@code fetchPage} reads a page deep into a store of
+ * {@value #STORED} results.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultStoreBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int STORED = 100_000;
+
+    private static final String[] NAMES = {"ann", "bob", "cid", "dan", "eve", "fay", "gus", "hal"};
+
+    @Param({"memory", "h2", "journal"})
+    private String backend;
+
+    private Path directory;
+    private ResultStore store;
+    private SplittableRandom random;
+    private List<GameResult> batch;
+
+    /**
+     * Creates the random results.
+     */
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        random = new SplittableRandom(1);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @throws IOException if the files of the store cannot be created
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("result-store");
+        store = open(backend, directory);
+        batch = new ArrayList<>(BATCH_SIZE);
+    }
+
+    /**
+     * Closes the store and deletes its files.
+     *
+     * @throws IOException if the files cannot be deleted
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        store.close();
+        delete(directory);
+    }
+
+    static ResultStore open(String backend, Path directory) throws IOException {
+        switch (backend) {
+            case "memory":
+                return new InMemoryResultStore();
+            case "h2":
+                return new ResultManager(JdbcConnectionPool.create("jdbc:h2:file:" + directory.resolve("results"), "", ""));
+            case "journal":
+                return new JournalResultStore(directory.resolve("results.journal"));
+            default:
+                throw new IllegalArgumentException(backend);
+        }
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    static GameResult randomResult(SplittableRandom random) {
+        var player1 = NAMES[random.nextInt(NAMES.length)];
+        var player2 = NAMES[random.nextInt(NAMES.length)];
+        return GameResult.builder()
+                .player1(player1)
+                .player2(player2)
+                .winner(random.nextBoolean() ? player1 : player2)
+                .steps(1 + random.nextInt(100))
+                .created(ZonedDateTime.now())
+                .build();
+    }
+
+    /**
+     * Stores one result.
+     *
+     * @return the id of the result
+     */
+    @Benchmark
+    public long insert() {
+        var gameResult = randomResult(random);
+        store.insert(gameResult);
+        return gameResult.getId();
+    }
+
+    /**
+     * Stores one result, sampling the time of every call.
+     *
+     * @return the id of the result
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long insertLatency() {
+        return insert();
+    }
+
+    /**
+     * Stores a batch of results, counted as one operation per result.
+     *
+     * @return the id of the last result
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long insertBatch() {
+        batch.clear();
+        for (int i = 0; i < BATCH_SIZE; ++i) {
+            batch.add(randomResult(random));
+        }
+        store.insertAll(batch);
+        return batch.get(BATCH_SIZE - 1).getId();
+    }
+
+    /**
+     * A store of {@value #STORED} results, created once.
+     */
+    @State(Scope.Benchmark)
+    public static class Filled {
+
+        @Param({"memory", "h2", "journal"})
+        private String backend;
+
+        private Path directory;
+        private ResultStore store;
+        private GameResult middle;
+
+        /**
+         * Creates the store and finds the result in the middle of the pages.
+         *
+         * @throws IOException if the files of the store cannot be created
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("result-store");
+            store = open(backend, directory);
+            var random = new SplittableRandom(2);
+            var batch = new ArrayList<GameResult>(BATCH_SIZE);
+            for (int i = 0; i < STORED; i += BATCH_SIZE) {
+                batch.clear();
+                for (int j = 0; j < BATCH_SIZE; ++j) {
+                    batch.add(randomResult(random));
+                }
+                store.insertAll(batch);
+            }
+            middle = store.fetchPage(null, STORED / 2).get(STORED / 2 - 1);
+        }
+
+        /**
+         * Closes the store and deletes its files.
+         *
+         * @throws IOException if the files cannot be deleted
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            store.close();
+            delete(directory);
+        }
+    }
+
+    /**
+     * Reads a page of 50 results from the middle of a filled store.
+     *
+     * @param filled the filled store
+     * @return the page
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<GameResult> fetchPage(Filled filled) {
+        return filled.store.fetchPage(filled.middle, 50);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks of the Game.
+ */
+package lepegeto.benchmark;
@@ -0,0 +1,30 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.GameState;
+import lepegeto.model.Player;
+
+/**
+ * A computer player choosing moves.
+ */
+public interface Engine {
+
+    /**
+     * Searches the best move of a player.
+     *
+     * @param board  the board, left unchanged
+     * @param player the player to move
+     * @return the result of the search
+     */
+    SearchResult search(Board board, Player player);
+
+    /**
+     * Searches the best move of the current player of a {@link GameState}.
+     *
+     * @param state the state of the game
+     * @return the result of the search
+     */
+    default SearchResult search(GameState state) {
+        return search(state.getBoard(), state.getCurrentPlayer());
+    }
+}
@@ -0,0 +1,123 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Direction;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Static evaluation of a {@link Board}.
+ *
+ * <p>The score is based on how many steps the figures of each player need to reach their goal row.
+ * The distances are precomputed per cell with a breadth-first search that steps around the
+ * forbidden cells of the initial board.</p>
+ */
+public final class Evaluator {
+
+    /**
+     * The score of a won position, reduced by the number of plies needed to win.
+     */
+    public static final int WIN = 100_000;
+
+    /**
+     * The distance of a cell from which the goal row cannot be reached.
+     */
+    public static final int UNREACHABLE = Board.CELLS;
+
+    /**
+     * The weight of one step of distance to the goal row.
+     */
+    private static final int STEP = 100;
+
+    /**
+     * The weight of one legal move more than the opponent.
+     */
+    private static final int MOBILITY = 2;
+
+    /**
+     * The distances of the cells from the goal row, indexed by player ordinal and cell.
+     */
+    private static final int[][] DISTANCES = new int[Player.values().length][];
+
+    static {
+        long forbidden = new Board().getForbidden();
+        for (var player : Player.values()) {
+            DISTANCES[player.ordinal()] = distances(Board.goalRow(player), forbidden);
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    private static int[] distances(int goalRow, long forbidden) {
+        var distances = new int[Board.CELLS];
+        Arrays.fill(distances, UNREACHABLE);
+        var queue = new ArrayDeque<Integer>();
+        for (int col = 0; col < Board.SIZE; ++col) {
+            int cell = Board.cell(goalRow, col);
+            if ((forbidden & Board.bit(cell)) == 0) {
+                distances[cell] = 0;
+                queue.add(cell);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            for (var direction : Direction.values()) {
+                int next = Board.cell(Board.row(cell) + direction.getRowChange(), Board.col(cell) + direction.getColChange());
+                if (next >= 0 && (forbidden & Board.bit(next)) == 0 && distances[next] == UNREACHABLE) {
+                    distances[next] = distances[cell] + 1;
+                    queue.add(next);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Returns the number of steps a figure needs to reach the goal row of a player.
+     *
+     * @param player the owner of the figure
+     * @param cell   the cell of the figure
+     * @return the distance of the cell from the goal row
+     */
+    public static int distance(Player player, int cell) {
+        return DISTANCES[player.ordinal()][cell];
+    }
+
+    /**
+     * Returns the sum of the distances of the figures in a mask from the goal row of a player.
+     *
+     * @param player the owner of the figures
+     * @param pieces the cells of the figures
+     * @return the total distance
+     */
+    public static int totalDistance(Player player, long pieces) {
+        int[] distances = DISTANCES[player.ordinal()];
+        int total = 0;
+        for (long rest = pieces; rest != 0; rest &= rest - 1) {
+            total += distances[Long.numberOfTrailingZeros(rest)];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the score of a non-terminal position from the point of view of the player to move.
+     *
+     * @param board  the board
+     * @param player the player to move
+     * @return the score, positive if {@code player} is ahead
+     */
+    public static int evaluate(Board board, Player player) {
+        var opponent = player.other();
+        long own = board.pieces(player);
+        long other = board.pieces(opponent);
+        long free = board.free();
+
+        int distance = totalDistance(opponent, other) - totalDistance(player, own);
+        int mobility = MoveGenerator.count(own, free) - MoveGenerator.count(other, free);
+        return distance * STEP + mobility * MOBILITY;
+    }
+}
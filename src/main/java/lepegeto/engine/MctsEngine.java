@@ -0,0 +1,298 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.tinylog.Logger;
+import org.tinylog.TaggedLogger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computer player using Monte Carlo Tree Search with the UCT selection rule.
+ *
+ * <p>The worker threads of the engine share a single tree. A thread descending the tree counts a visit on
+ * every node it passes before the result of its playout is known, which makes the node look like a loss
+ * to the other threads until then (virtual loss), so they spread out over different branches.</p>
+ *
+ * <p>Every worker plays its random playouts on its own {@link Board}, reset with {@link Board#copyFrom}, and
+ * its own move buffer, so playouts do not allocate. Random play may go on forever in this game, so a playout
+ * is cut after a fixed number of plies and decided by the distances of the figures from their goal rows.</p>
+ *
+ * <p>The move of the result is the most visited child of the root, its score is the per mille of the
+ * playouts through it won by the player to move, and its node count is the number of playouts.</p>
+ */
+public class MctsEngine implements Engine, AutoCloseable {
+
+    private static final TaggedLogger LOG = Logger.tag("engine");
+
+    /**
+     * The default number of plies after which a playout is cut.
+     */
+    public static final int DEFAULT_PLAYOUT_LENGTH = 200;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * The number of visits of a node before its children are created.
+     */
+    private static final int EXPANSION_THRESHOLD = 2;
+
+    private static final int DRAW = -1;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final long timeLimitNanos;
+    private final long playoutLimit;
+    private final int maxPlayoutLength;
+    private final SplittableRandom seeds;
+
+    /**
+     * Creates a {@code MctsEngine} using every available processor and a time budget per move.
+     *
+     * @param timeLimit the time budget of a search
+     */
+    public MctsEngine(Duration timeLimit) {
+        this(Runtime.getRuntime().availableProcessors(), timeLimit, Long.MAX_VALUE, DEFAULT_PLAYOUT_LENGTH, System.nanoTime());
+    }
+
+    /**
+     * Creates a {@code MctsEngine}.
+     *
+     * @param threads          the number of worker threads
+     * @param timeLimit        the time budget of a search
+     * @param playoutLimit     the maximum number of playouts of a search
+     * @param maxPlayoutLength the number of plies after which a playout is cut
+     * @param seed             the seed of the random playouts
+     */
+    public MctsEngine(int threads, Duration timeLimit, long playoutLimit, int maxPlayoutLength, long seed) {
+        this.threads = threads;
+        this.timeLimitNanos = timeLimit.toNanos();
+        this.playoutLimit = playoutLimit;
+        this.maxPlayoutLength = maxPlayoutLength;
+        this.seeds = new SplittableRandom(seed);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public SearchResult search(Board position, Player player) {
+        long start = System.nanoTime();
+        var root = new Node(SearchResult.NO_MOVE, null);
+        var board = position.clone();
+        if (root.expand(board, player).length == 0) {
+            return new SearchResult(SearchResult.NO_MOVE, -Evaluator.WIN, 0, 0, System.nanoTime() - start);
+        }
+
+        var playouts = new AtomicLong();
+        long deadline = start + timeLimitNanos;
+        var futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < threads; ++i) {
+            var worker = new Worker(root, position, player, deadline, playouts, seeds.split());
+            futures.add(executor.submit(worker::run));
+        }
+
+        int depth = 0;
+        try {
+            for (var future : futures) {
+                depth = Math.max(depth, future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Node best = null;
+        for (var child : root.children) {
+            if (best == null || child.visits() > best.visits()) {
+                best = child;
+            }
+        }
+        int score = best.visits() == 0 ? 0 : (int) (best.halfPoints() * 500 / best.visits());
+        var result = new SearchResult(best.move, score, depth, root.visits(), System.nanoTime() - start);
+        LOG.debug("Search finished: {}", result);
+        return result;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A node of the shared search tree, reached by {@code move} from its parent.
+     */
+    private static final class Node {
+
+        private final int move;
+        private final Node parent;
+        /**
+         * Visits in the upper, half points won by the player making {@code move} in the lower 32 bits.
+         */
+        private final AtomicLong stats = new AtomicLong();
+        private volatile Node[] children;
+
+        private Node(int move, Node parent) {
+            this.move = move;
+            this.parent = parent;
+        }
+
+        private int visits() {
+            return (int) (stats.get() >>> 32);
+        }
+
+        private long halfPoints() {
+            return stats.get() & 0xffff_ffffL;
+        }
+
+        private void addVisit() {
+            stats.addAndGet(1L << 32);
+        }
+
+        private void addHalfPoints(int halfPoints) {
+            stats.addAndGet(halfPoints);
+        }
+
+        private synchronized Node[] expand(Board board, Player player) {
+            if (children == null) {
+                var moves = new int[MoveGenerator.MAX_MOVES];
+                int count = MoveGenerator.generate(board, player, moves);
+                var nodes = new Node[count];
+                for (int i = 0; i < count; ++i) {
+                    nodes[i] = new Node(moves[i], this);
+                }
+                children = nodes;
+            }
+            return children;
+        }
+
+        private Node select() {
+            Node[] nodes = children;
+            double logVisits = Math.log(Math.max(1, visits()));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (var child : nodes) {
+                long childStats = child.stats.get();
+                int visits = (int) (childStats >>> 32);
+                if (visits == 0) {
+                    return child;
+                }
+                double value = (childStats & 0xffff_ffffL) / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Runs playouts on the shared tree until the budget runs out.
+     */
+    private final class Worker {
+
+        private final Node root;
+        private final Board position;
+        private final Player player;
+        private final long deadline;
+        private final AtomicLong playouts;
+        private final SplittableRandom random;
+        private final Board board = new Board();
+        private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+        private Worker(Node root, Board position, Player player, long deadline, AtomicLong playouts, SplittableRandom random) {
+            this.root = root;
+            this.position = position;
+            this.player = player;
+            this.deadline = deadline;
+            this.playouts = playouts;
+            this.random = random;
+        }
+
+        /**
+         * Returns the deepest node reached.
+         */
+        private int run() {
+            int maxDepth = 0;
+            while (System.nanoTime() < deadline && playouts.getAndIncrement() < playoutLimit) {
+                board.copyFrom(position);
+                var side = player;
+                var node = root;
+                node.addVisit();
+                int depth = 0;
+                while (!board.isHome(side.other())) {
+                    Node[] nodes = node.children;
+                    if (nodes == null) {
+                        if (node.visits() < EXPANSION_THRESHOLD) {
+                            break;
+                        }
+                        nodes = node.expand(board, side);
+                    }
+                    if (nodes.length == 0) {
+                        break;
+                    }
+                    node = node.select();
+                    node.addVisit();
+                    board.apply(side, node.move);
+                    side = side.other();
+                    ++depth;
+                }
+                maxDepth = Math.max(maxDepth, depth);
+
+                int winner = playout(side);
+                var mover = side.other();
+                for (var n = node; n != null; n = n.parent) {
+                    if (winner == DRAW) {
+                        n.addHalfPoints(1);
+                    } else if (winner == mover.ordinal()) {
+                        n.addHalfPoints(2);
+                    }
+                    mover = mover.other();
+                }
+            }
+            return maxDepth;
+        }
+
+        /**
+         * Plays random moves on {@code board} and returns the ordinal of the winner, or {@link #DRAW}.
+         */
+        private int playout(Player side) {
+            if (board.isHome(side.other())) {
+                return side.other().ordinal();
+            }
+            for (int ply = 0; ply < maxPlayoutLength; ++ply) {
+                int count = MoveGenerator.generate(board, side, moves);
+                if (count == 0) {
+                    return side.other().ordinal();
+                }
+                board.apply(side, moves[random.nextInt(count)]);
+                if (board.isHome(side)) {
+                    return side.ordinal();
+                }
+                side = side.other();
+            }
+
+            int blueBehind = Evaluator.totalDistance(Player.BLUE, board.getBlue());
+            int redBehind = Evaluator.totalDistance(Player.RED, board.getRed());
+            if (blueBehind == redBehind) {
+                return DRAW;
+            }
+            return blueBehind < redBehind ? Player.BLUE.ordinal() : Player.RED.ordinal();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.MoveResult;
+import lepegeto.model.Player;
+import lepegeto.model.Position;
+import lepegeto.model.Zobrist;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the positions reachable in a given number of plies, to validate and benchmark move generation.
+ *
+ * <p>A position in which a player has all of his figures on his goal row ends the game, so it is not expanded
+ * any further. The count of a depth is the number of move sequences of that length that do not pass
+ * through such a position before their last move.</p>
+ *
+ * <p>The subtrees are split into {@link RecursiveTask}s on a {@link ForkJoinPool} down to a configurable depth,
+ * and the counts of subtrees are optionally cached in a lock-free table keyed by {@link Zobrist} keys,
+ * so transpositions are only counted once.</p>
+ */
+public class Perft {
+
+    /**
+     * The number of plies from the root that are split into separate tasks.
+     */
+    private static final int DEFAULT_SPLIT_DEPTH = 2;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final Cache cache;
+
+    /**
+     * Creates a {@code Perft} running on the common pool, without a cache.
+     */
+    public Perft() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH, 0);
+    }
+
+    /**
+     * Creates a {@code Perft}.
+     *
+     * @param pool           the pool running the tasks
+     * @param splitDepth     the number of plies from the root that are split into separate tasks
+     * @param cacheMegabytes the size of the cache of subtree counts, or {@code 0} for no cache
+     */
+    public Perft(ForkJoinPool pool, int splitDepth, int cacheMegabytes) {
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.cache = cacheMegabytes > 0 ? new Cache(cacheMegabytes) : null;
+    }
+
+    /**
+     * Counts the positions reachable in {@code depth} plies, in parallel.
+     *
+     * @param board  the board, left unchanged
+     * @param player the player to move
+     * @param depth  the number of plies
+     * @return the number of positions
+     */
+    public long count(Board board, Player player, int depth) {
+        return pool.invoke(new Task(board.clone(), player, depth, 0));
+    }
+
+    /**
+     * Counts the positions reachable in {@code depth} plies after each legal move of the player.
+     *
+     * @param board  the board, left unchanged
+     * @param player the player to move
+     * @param depth  the number of plies, including the first move
+     * @return the moves and their counts, one per line
+     */
+    public String divide(Board board, Player player, int depth) {
+        var sb = new StringBuilder();
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(board, player, moves);
+        for (int i = 0; i < count; ++i) {
+            var child = board.clone();
+            child.apply(player, moves[i]);
+            long nodes = child.isHome(player) || depth == 1 ? 1 : count(child, player.other(), depth - 1);
+            sb.append(String.format("%s: %d%n", Move.toString(moves[i]), nodes));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Counts the positions reachable in {@code depth} plies on the current thread.
+     *
+     * @param board  the board, restored before returning
+     * @param player the player to move
+     * @param depth  the number of plies
+     * @return the number of positions
+     */
+    public static long countSequential(Board board, Player player, int depth) {
+        return countSequential(board, player, depth, new int[depth + 1][MoveGenerator.MAX_MOVES], null);
+    }
+
+    private static long countSequential(Board board, Player player, int depth, int[][] moves, Cache cache) {
+        if (depth == 0) {
+            return 1;
+        }
+        long own = board.pieces(player);
+        long free = board.free();
+        if (depth == 1) {
+            return MoveGenerator.count(own, free);
+        }
+
+        long key = 0;
+        if (cache != null) {
+            key = board.getKey() ^ Zobrist.side(player);
+            long cached = cache.get(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        int[] plyMoves = moves[depth];
+        int count = MoveGenerator.generate(own, free, plyMoves, 0);
+        long nodes = 0;
+        for (int i = 0; i < count; ++i) {
+            board.apply(player, plyMoves[i]);
+            nodes += board.isHome(player) ? 1 : countSequential(board, player.other(), depth - 1, moves, cache);
+            board.apply(player, plyMoves[i]);
+        }
+
+        if (cache != null) {
+            cache.put(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the positions reachable in {@code depth} plies by trying every pair of figures in every direction
+     * through {@link GameState#trySelect}, {@link GameState#tryAddGhost} and {@link GameState#tryEndTurn}.
+     * It is much slower than {@link #count}, and serves as the reference of its results.
+     *
+     * @param state the state of the game, left unchanged
+     * @param depth the number of plies
+     * @return the number of positions
+     */
+    public static long countReference(GameState state, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        var figures = state.getCurrentPlayerPositions();
+        for (int i = 0; i < figures.length; ++i) {
+            for (int j = i + 1; j < figures.length; ++j) {
+                for (var direction : Direction.values()) {
+                    var child = state.clone();
+                    child.clearSelection();
+                    var first = new Position(figures[i].getRow(), figures[i].getCol());
+                    var second = new Position(figures[j].getRow(), figures[j].getCol());
+                    if (!child.trySelect(first).isSuccess()
+                            || !child.trySelect(second).isSuccess()
+                            || !child.tryAddGhost(first.getTarget(direction)).isSuccess()
+                            || !child.tryAddGhost(second.getTarget(direction)).isSuccess()) {
+                        continue;
+                    }
+                    var result = child.tryEndTurn();
+                    if (!result.isSuccess()) {
+                        continue;
+                    }
+                    nodes += result == MoveResult.WIN ? 1 : countReference(child, depth - 1);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Prints the counts of the initial position up to a depth, and the number of leaves counted per second.
+     *
+     * @param args the maximum depth, the number of threads and the size of the cache in megabytes, all optional
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int cacheMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        var pool = new ForkJoinPool(threads);
+        var perft = new Perft(pool, DEFAULT_SPLIT_DEPTH, cacheMegabytes);
+        for (int depth = 1; depth <= maxDepth; ++depth) {
+            long start = System.nanoTime();
+            long nodes = perft.count(new Board(), Player.BLUE, depth);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+            System.out.printf("depth %d: %d positions in %d ms, %d positions/s%n",
+                    depth, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / elapsed);
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Counts a subtree, forking the subtrees of its moves while close enough to the root.
+     */
+    private final class Task extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final Player player;
+        private final int depth;
+        private final int ply;
+
+        private Task(Board board, Player player, int depth, int ply) {
+            this.board = board;
+            this.player = player;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            if (ply >= splitDepth || depth <= 2) {
+                return countSequential(board, player, depth, new int[depth + 1][MoveGenerator.MAX_MOVES], cache);
+            }
+            var moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generate(board, player, moves);
+            long nodes = 0;
+            var tasks = new ArrayList<Task>(count);
+            for (int i = 0; i < count; ++i) {
+                var child = board.clone();
+                child.apply(player, moves[i]);
+                if (child.isHome(player)) {
+                    ++nodes;
+                } else {
+                    tasks.add(new Task(child, player.other(), depth - 1, ply + 1));
+                }
+            }
+            for (var task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Lock-free table of subtree counts, validated the same way as the {@link TranspositionTable}.
+     */
+    private static final class Cache {
+
+        private static final int DEPTH_BITS = 8;
+
+        private final AtomicLongArray table;
+        private final int mask;
+
+        private Cache(int megabytes) {
+            long slots = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / (2 * Long.BYTES)));
+            slots = Math.min(slots, 1L << 29);
+            table = new AtomicLongArray((int) slots * 2);
+            mask = (int) slots - 1;
+        }
+
+        private long get(long key, int depth) {
+            int index = ((int) key & mask) * 2;
+            long data = table.getOpaque(index + 1);
+            if (data != 0 && (table.getOpaque(index) ^ data) == key && (data & ((1 << DEPTH_BITS) - 1)) == depth) {
+                return data >>> DEPTH_BITS;
+            }
+            return -1;
+        }
+
+        private void put(long key, int depth, long nodes) {
+            long data = nodes << DEPTH_BITS | depth;
+            int index = ((int) key & mask) * 2;
+            table.setOpaque(index, key ^ data);
+            table.setOpaque(index + 1, data);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+
+import java.util.SplittableRandom;
+
+/**
+ * Computer player choosing a uniformly random legal move, the baseline of the other engines.
+ */
+public class RandomEngine implements Engine {
+
+    private final SplittableRandom random;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Creates a {@code RandomEngine}.
+     *
+     * @param seed the seed of the random moves
+     */
+    public RandomEngine(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public SearchResult search(Board board, Player player) {
+        long start = System.nanoTime();
+        int count = MoveGenerator.generate(board, player, moves);
+        if (count == 0) {
+            return new SearchResult(SearchResult.NO_MOVE, -Evaluator.WIN, 0, 0, System.nanoTime() - start);
+        }
+        return new SearchResult(moves[random.nextInt(count)], 0, 1, count, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,290 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import lepegeto.model.Zobrist;
+import org.tinylog.Logger;
+import org.tinylog.TaggedLogger;
+
+import java.time.Duration;
+
+/**
+ * Computer player searching the game tree with negamax alpha-beta and iterative deepening.
+ *
+ * <p>A player loses when the opponent has all of his figures on his goal row, or when he has no legal move.
+ * Moves are made and taken back on a single {@link Board} with {@link Board#apply}, and every ply
+ * has its own preallocated move buffer, so the search does not allocate.
+ * The search stops when either the time or the node budget runs out, and the result of the
+ * last completed iteration is returned.</p>
+ *
+ * <p>Searched positions are cached in a {@link TranspositionTable}, keyed by the incremental
+ * {@link Zobrist} key of the board. A {@code SearchEngine} is not thread-safe, but engines running on
+ * different threads may share one table.</p>
+ */
+public class SearchEngine implements Engine {
+
+    private static final TaggedLogger LOG = Logger.tag("engine");
+
+    /**
+     * The deepest iteration the search will start.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = Evaluator.WIN + 1;
+
+    private static final int KILLER_BONUS = 16;
+
+    private static final int TABLE_MOVE_BONUS = 64;
+
+    /**
+     * The size of the transposition table of an engine not sharing one, in megabytes.
+     */
+    private static final int DEFAULT_TABLE_SIZE = 16;
+
+    /**
+     * The number of nodes between two checks of the clock.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final long timeLimitNanos;
+    private final long nodeLimit;
+    private final TranspositionTable table;
+
+    private final int[][] moves = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] orders = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_DEPTH + 1][2];
+
+    private Board board;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+
+    /**
+     * Creates a {@code SearchEngine} with a time budget per move and no node budget.
+     *
+     * @param timeLimit the time budget of a search
+     */
+    public SearchEngine(Duration timeLimit) {
+        this(timeLimit, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@code SearchEngine} with a time and a node budget per move.
+     *
+     * @param timeLimit the time budget of a search
+     * @param nodeLimit the maximum number of positions visited by a search
+     */
+    public SearchEngine(Duration timeLimit, long nodeLimit) {
+        this(timeLimit, nodeLimit, new TranspositionTable(DEFAULT_TABLE_SIZE));
+    }
+
+    /**
+     * Creates a {@code SearchEngine} with a time and a node budget per move, using the given table.
+     *
+     * @param timeLimit the time budget of a search
+     * @param nodeLimit the maximum number of positions visited by a search
+     * @param table     the transposition table, possibly shared with other engines
+     */
+    public SearchEngine(Duration timeLimit, long nodeLimit, TranspositionTable table) {
+        this.timeLimitNanos = timeLimit.toNanos();
+        this.nodeLimit = nodeLimit;
+        this.table = table;
+    }
+
+    @Override
+    public SearchResult search(Board position, Player player) {
+        long start = System.nanoTime();
+        board = position.clone();
+        nodes = 0;
+        deadline = start + timeLimitNanos;
+        aborted = false;
+        table.newSearch();
+        for (var killer : killers) {
+            killer[0] = SearchResult.NO_MOVE;
+            killer[1] = SearchResult.NO_MOVE;
+        }
+
+        int[] rootMoves = moves[0];
+        int count = MoveGenerator.generate(board, player, rootMoves);
+        if (count == 0) {
+            return new SearchResult(SearchResult.NO_MOVE, -Evaluator.WIN, 0, 0, System.nanoTime() - start);
+        }
+        order(0, count, player, SearchResult.NO_MOVE);
+
+        int bestMove = rootMoves[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            int iterationMove = SearchResult.NO_MOVE;
+            int alpha = -INFINITY;
+            for (int i = 0; i < count; ++i) {
+                int move = rootMoves[i];
+                board.apply(player, move);
+                int score = -negamax(depth - 1, 1, -INFINITY, -alpha, player.other());
+                board.apply(player, move);
+                if (aborted) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                    System.arraycopy(rootMoves, 0, rootMoves, 1, i);
+                    rootMoves[0] = move;
+                }
+            }
+            if (aborted) {
+                break;
+            }
+
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("depth {} score {} nodes {} best {}", depth, alpha, nodes, Move.toString(bestMove));
+            }
+            if (Math.abs(bestScore) > Evaluator.WIN - MAX_DEPTH) {
+                break;
+            }
+        }
+
+        var result = new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+        LOG.debug("Search finished: {}", result);
+        return result;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, Player player) {
+        if (++nodes % CHECK_INTERVAL == 0 && System.nanoTime() > deadline || nodes >= nodeLimit) {
+            aborted = true;
+            return 0;
+        }
+
+        var opponent = player.other();
+        if (board.isHome(opponent)) {
+            return -(Evaluator.WIN - ply);
+        }
+        if (depth == 0 || ply == MAX_DEPTH) {
+            return Evaluator.evaluate(board, player);
+        }
+
+        long key = board.getKey() ^ Zobrist.side(player);
+        long entry = table.probe(key);
+        int tableMove = SearchResult.NO_MOVE;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT:
+                        return score;
+                    case TranspositionTable.LOWER:
+                        if (score >= beta) {
+                            return score;
+                        }
+                        break;
+                    default:
+                        if (score <= alpha) {
+                            return score;
+                        }
+                }
+            }
+        }
+
+        int[] plyMoves = moves[ply];
+        int count = MoveGenerator.generate(board, player, plyMoves);
+        if (count == 0) {
+            return -(Evaluator.WIN - ply);
+        }
+        order(ply, count, player, tableMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = SearchResult.NO_MOVE;
+        for (int i = 0; i < count; ++i) {
+            int move = plyMoves[i];
+            board.apply(player, move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, opponent);
+            board.apply(player, move);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        storeKiller(ply, move);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Converts a won or lost score from distance to the root into distance to the stored position.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > Evaluator.WIN - MAX_DEPTH) {
+            return score + ply;
+        } else if (score < -Evaluator.WIN + MAX_DEPTH) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > Evaluator.WIN - MAX_DEPTH) {
+            return score - ply;
+        } else if (score < -Evaluator.WIN + MAX_DEPTH) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void storeKiller(int ply, int move) {
+        int[] killer = killers[ply];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+    }
+
+    /**
+     * Sorts the moves of a ply: the move from the table first, then the killers,
+     * then the ones bringing the figures closer to the goal row.
+     */
+    private void order(int ply, int count, Player player, int tableMove) {
+        int[] plyMoves = moves[ply];
+        int[] keys = orders[ply];
+        int[] killer = killers[ply];
+        for (int i = 0; i < count; ++i) {
+            int move = plyMoves[i];
+            int delta = Move.delta(Move.directionIndex(move));
+            int first = Move.first(move);
+            int second = Move.second(move);
+            int key = Evaluator.distance(player, first) + Evaluator.distance(player, second)
+                    - Evaluator.distance(player, first + delta) - Evaluator.distance(player, second + delta);
+            if (move == tableMove) {
+                key += TABLE_MOVE_BONUS;
+            } else if (move == killer[0] || move == killer[1]) {
+                key += KILLER_BONUS;
+            }
+            int j = i;
+            while (j > 0 && keys[j - 1] < key) {
+                keys[j] = keys[j - 1];
+                plyMoves[j] = plyMoves[j - 1];
+                --j;
+            }
+            keys[j] = key;
+            plyMoves[j] = move;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package lepegeto.engine;
+
+import lepegeto.model.Move;
+
+/**
+ * The outcome of a search.
+ *
+ * @param move         the best move found, encoded as described in {@link Move}, or {@link #NO_MOVE}
+ * @param score        the score of the best move from the point of view of the player to move
+ * @param depth        the depth of the last completed iteration
+ * @param nodes        the number of positions visited
+ * @param elapsedNanos the duration of the search in nanoseconds
+ */
+public record SearchResult(int move, int score, int depth, long nodes, long elapsedNanos) {
+
+    /**
+     * The move of a result if the player to move has no legal move.
+     */
+    public static final int NO_MOVE = -1;
+
+    /**
+     * Returns whether the search found a move.
+     *
+     * @return whether {@code move} is a legal move
+     */
+    public boolean hasMove() {
+        return move != NO_MOVE;
+    }
+
+    /**
+     * Returns whether the score is a forced win or loss.
+     *
+     * @return whether the search has seen the end of the game
+     */
+    public boolean isDecisive() {
+        return Math.abs(score) > Evaluator.WIN - SearchEngine.MAX_DEPTH;
+    }
+
+    /**
+     * Returns the speed of the search.
+     *
+     * @return the number of positions visited per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("move: %s, score: %d, depth: %d, nodes: %d, nps: %d",
+                hasMove() ? Move.toString(move) : "none", score, depth, nodes, nodesPerSecond());
+    }
+}
@@ -0,0 +1,213 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Complete table of the game-theoretic values of the positions with a given number of figures per side,
+ * read from a file mapped into memory.
+ *
+ * <p>Every position of the {@link TablebaseIndex} takes one byte. {@code 0} is a draw, any other value {@code v}
+ * means the game ends after {@code v - 1} plies of perfect play: the player to move loses if that distance is
+ * even and wins if it is odd. The file starts with a {@value #HEADER_SIZE} byte header holding a magic number,
+ * the format version, the number of figures per side and the number of positions.</p>
+ *
+ * <p>Lookups go straight to the mapped file, so an open table takes no heap besides this object.</p>
+ */
+public class Tablebase implements Engine, AutoCloseable {
+
+    /**
+     * The size of the header of a tablebase file.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * The value of a drawn position.
+     */
+    public static final int DRAW = 0;
+
+    private static final int MAGIC = 0x4c505442;
+    private static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer values;
+    private final TablebaseIndex index;
+
+    private Tablebase(FileChannel channel, MappedByteBuffer values, TablebaseIndex index) {
+        this.channel = channel;
+        this.values = values;
+        this.index = index;
+    }
+
+    /**
+     * Opens a tablebase file.
+     *
+     * @param path the path of the file
+     * @return the tablebase
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static Tablebase open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(String.format("%s is not a tablebase file", path));
+            }
+            var index = new TablebaseIndex(header.getInt());
+            long size = header.getLong();
+            if (size != index.size() || channel.size() != HEADER_SIZE + size) {
+                throw new IOException(String.format("%s is truncated", path));
+            }
+            var values = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size);
+            return new Tablebase(channel, values, index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the values of a solved index to a tablebase file.
+     *
+     * @param path   the path of the file
+     * @param index  the index of the positions
+     * @param values the values of the positions, as described in {@link Tablebase}
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, TablebaseIndex index, byte[] values) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(index.getPieces()).putLong(values.length);
+            header.rewind();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            var body = ByteBuffer.wrap(values);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the positions of the table.
+     *
+     * @return the index
+     */
+    public TablebaseIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the value of a position.
+     *
+     * @param board  the board
+     * @param player the player to move
+     * @return the value, as described in {@link Tablebase}
+     * @throws IllegalArgumentException if the position is not covered by the table
+     */
+    public int probe(Board board, Player player) {
+        if (!index.contains(board)) {
+            throw new IllegalArgumentException(String.format("%s is not in the tablebase", board));
+        }
+        return values.get((int) index.index(board, player)) & 0xff;
+    }
+
+    /**
+     * Returns whether a value is a win for the player to move.
+     *
+     * @param value the value of a position
+     * @return whether the player to move wins
+     */
+    public static boolean isWin(int value) {
+        return value != DRAW && (value - 1) % 2 == 1;
+    }
+
+    /**
+     * Returns whether a value is a loss for the player to move.
+     *
+     * @param value the value of a position
+     * @return whether the player to move loses
+     */
+    public static boolean isLoss(int value) {
+        return value != DRAW && (value - 1) % 2 == 0;
+    }
+
+    /**
+     * Returns the number of plies until the end of the game.
+     *
+     * @param value the value of a decided position
+     * @return the number of plies of perfect play until the game ends
+     */
+    public static int distance(int value) {
+        return value - 1;
+    }
+
+    /**
+     * Converts a value into a score of the {@link SearchEngine} scale.
+     *
+     * @param value the value of a position
+     * @return the score from the point of view of the player to move
+     */
+    public static int score(int value) {
+        if (value == DRAW) {
+            return 0;
+        }
+        int winScore = Evaluator.WIN - distance(value);
+        return isWin(value) ? winScore : -winScore;
+    }
+
+    /**
+     * Returns the best move of a position: the fastest win, a draw, or the slowest loss.
+     *
+     * @param board  the board, left unchanged
+     * @param player the player to move
+     * @return the best move, its score and the distance to the end of the game as depth
+     */
+    @Override
+    public SearchResult search(Board board, Player player) {
+        long start = System.nanoTime();
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(board, player, moves);
+        int value = probe(board, player);
+
+        int bestMove = SearchResult.NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+        var child = board.clone();
+        for (int i = 0; i < count; ++i) {
+            child.apply(player, moves[i]);
+            int score = -score(probe(child, player.other()));
+            child.apply(player, moves[i]);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+        }
+        return new SearchResult(bestMove, score(value), value == DRAW ? 0 : distance(value), count,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Closes the file. The mapping is released once the table is no longer referenced.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
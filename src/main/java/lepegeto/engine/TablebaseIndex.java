@@ -0,0 +1,198 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Player;
+
+/**
+ * Perfect hash of the positions with a given number of figures per side, used to address a {@link Tablebase}.
+ *
+ * <p>The figures can stand on the 21 cells that are not forbidden on the initial board. The blue figures are
+ * ranked in colexicographic order among those cells, the red ones among the cells left free by Blue, and
+ * the player to move is the lowest digit:
+ * {@code index = (rank(blue) * C(21 - n, n) + rank(red)) * 2 + player}.</p>
+ */
+public final class TablebaseIndex {
+
+    /**
+     * The forbidden cells of every position in the index.
+     */
+    public static final long FORBIDDEN = new Board().getForbidden();
+
+    private static final int[] SQUARES = new int[Board.CELLS - Long.bitCount(FORBIDDEN)];
+    private static final int[] SQUARE_OF_CELL = new int[Board.CELLS];
+    private static final long[][] BINOMIAL = new long[SQUARES.length + 1][SQUARES.length + 1];
+
+    static {
+        int square = 0;
+        for (int cell = 0; cell < Board.CELLS; ++cell) {
+            if ((FORBIDDEN & Board.bit(cell)) == 0) {
+                SQUARE_OF_CELL[cell] = square;
+                SQUARES[square++] = cell;
+            } else {
+                SQUARE_OF_CELL[cell] = -1;
+            }
+        }
+        for (int n = 0; n < BINOMIAL.length; ++n) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; ++k) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int pieces;
+    private final long redCombinations;
+    private final long size;
+
+    /**
+     * Creates the index of the positions with {@code pieces} figures per side.
+     *
+     * @param pieces the number of figures of each player
+     * @throws IllegalArgumentException if the figures do not fit on the board
+     */
+    public TablebaseIndex(int pieces) {
+        if (pieces < 1 || 2 * pieces > SQUARES.length) {
+            throw new IllegalArgumentException(String.format("Invalid number of figures: %d", pieces));
+        }
+        this.pieces = pieces;
+        this.redCombinations = BINOMIAL[SQUARES.length - pieces][pieces];
+        this.size = BINOMIAL[SQUARES.length][pieces] * redCombinations * 2;
+    }
+
+    /**
+     * Returns the number of figures per side.
+     *
+     * @return the number of figures of each player
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    /**
+     * Returns the number of positions in the index.
+     *
+     * @return the number of distinct indexes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether a position is covered by the index.
+     *
+     * @param board the board
+     * @return whether the board has the forbidden cells of the initial board and the right number of figures
+     */
+    public boolean contains(Board board) {
+        return board.getForbidden() == FORBIDDEN
+                && Long.bitCount(board.getBlue()) == pieces
+                && Long.bitCount(board.getRed()) == pieces
+                && (board.getBlue() & board.getRed()) == 0
+                && ((board.getBlue() | board.getRed()) & FORBIDDEN) == 0;
+    }
+
+    /**
+     * Returns the index of a position.
+     *
+     * @param blue   the cells of Blue
+     * @param red    the cells of Red
+     * @param player the player to move
+     * @return the index of the position
+     */
+    public long index(long blue, long red, Player player) {
+        long blueRank = 0;
+        int i = 0;
+        for (long rest = blue; rest != 0; rest &= rest - 1) {
+            blueRank += BINOMIAL[SQUARE_OF_CELL[Long.numberOfTrailingZeros(rest)]][++i];
+        }
+        long redRank = 0;
+        i = 0;
+        for (long rest = red; rest != 0; rest &= rest - 1) {
+            int cell = Long.numberOfTrailingZeros(rest);
+            int blueBelow = Long.bitCount(blue & (Board.bit(cell) - 1));
+            redRank += BINOMIAL[SQUARE_OF_CELL[cell] - blueBelow][++i];
+        }
+        return ((blueRank * redCombinations + redRank) << 1) | player.ordinal();
+    }
+
+    /**
+     * Returns the index of a position.
+     *
+     * @param board  the board
+     * @param player the player to move
+     * @return the index of the position
+     */
+    public long index(Board board, Player player) {
+        return index(board.getBlue(), board.getRed(), player);
+    }
+
+    /**
+     * Returns the player to move of an index.
+     *
+     * @param index the index of a position
+     * @return the player to move
+     */
+    public static Player player(long index) {
+        return (index & 1) == 0 ? Player.BLUE : Player.RED;
+    }
+
+    /**
+     * Returns the position of an index.
+     *
+     * @param index the index of a position
+     * @return the board of the position
+     */
+    public Board board(long index) {
+        long blue = blue(index);
+        return new Board(blue, red(index, blue), FORBIDDEN);
+    }
+
+    /**
+     * Returns the cells of Blue in the position of an index.
+     *
+     * @param index the index of a position
+     * @return the mask of the blue figures
+     */
+    public long blue(long index) {
+        return unrank((index >>> 1) / redCombinations, SQUARES.length, 0);
+    }
+
+    /**
+     * Returns the cells of Red in the position of an index.
+     *
+     * @param index the index of a position
+     * @param blue  the cells of Blue in the same position
+     * @return the mask of the red figures
+     */
+    public long red(long index, long blue) {
+        return unrank((index >>> 1) % redCombinations, SQUARES.length - pieces, blue);
+    }
+
+    /**
+     * Returns the cells of the combination of a rank, skipping the cells in {@code taken}.
+     */
+    private long unrank(long rank, int squares, long taken) {
+        long chosen = 0;
+        int square = squares - 1;
+        for (int k = pieces; k > 0; --k) {
+            while (BINOMIAL[square][k] > rank) {
+                --square;
+            }
+            rank -= BINOMIAL[square][k];
+            chosen |= 1L << square;
+            --square;
+        }
+
+        long mask = 0;
+        int compressed = 0;
+        for (int cell : SQUARES) {
+            if ((taken & Board.bit(cell)) == 0) {
+                if ((chosen & (1L << compressed)) != 0) {
+                    mask |= Board.bit(cell);
+                }
+                ++compressed;
+            }
+        }
+        return mask;
+    }
+}
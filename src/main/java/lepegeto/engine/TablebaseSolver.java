@@ -0,0 +1,242 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.tinylog.Logger;
+import org.tinylog.TaggedLogger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves every position of a {@link TablebaseIndex} by retrograde analysis.
+ *
+ * <p>The positions in which the player to move has lost, because his opponent has all of his figures on his goal
+ * row or because he has no legal move, are found first. Then the solver walks backwards one ply at a time from
+ * the positions decided in the previous step: a position with a move into a lost position is won, and a position
+ * whose moves all lead into won positions is lost once the last of them has been seen. Positions never decided
+ * are draws.</p>
+ *
+ * <p>Every step is split between the worker threads. The values and the numbers of unresolved moves of the
+ * positions are plain byte arrays updated with compare-and-set, so the threads need no locks.</p>
+ */
+public class TablebaseSolver {
+
+    private static final TaggedLogger LOG = Logger.tag("engine");
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    /**
+     * The number of chunks each thread gets in the first step, to even out the work.
+     */
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    private static final int MAX_VALUE = 0xff;
+
+    private final TablebaseIndex index;
+    private final int threads;
+
+    /**
+     * Creates a {@code TablebaseSolver}.
+     *
+     * @param index   the positions to solve
+     * @param threads the number of worker threads
+     */
+    public TablebaseSolver(TablebaseIndex index, int threads) {
+        if (index.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Too many positions: %d", index.size()));
+        }
+        this.index = index;
+        this.threads = threads;
+    }
+
+    /**
+     * Solves every position.
+     *
+     * @return the values of the positions, as described in {@link Tablebase}
+     * @throws InterruptedException if the thread is interrupted while waiting for the workers
+     */
+    public byte[] solve() throws InterruptedException {
+        int size = (int) index.size();
+        var values = new byte[size];
+        var counters = new byte[size];
+        var executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "tablebase-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int chunks = threads * CHUNKS_PER_THREAD;
+            var tasks = new ArrayList<Callable<IntList>>(chunks);
+            for (int i = 0; i < chunks; ++i) {
+                int from = (int) ((long) size * i / chunks);
+                int to = (int) ((long) size * (i + 1) / chunks);
+                tasks.add(() -> initialize(values, counters, from, to));
+            }
+            var frontier = invokeAll(executor, tasks);
+
+            for (int distance = 0; !frontier.isEmpty(); ++distance) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Distance {}: {} positions", distance, frontier.stream().mapToInt(IntList::size).sum());
+                }
+                if (distance + 2 > MAX_VALUE) {
+                    throw new IllegalStateException(String.format("Distance %d does not fit the table", distance + 1));
+                }
+                int next = distance + 2;
+                boolean loss = distance % 2 == 0;
+                tasks.clear();
+                for (var positions : frontier) {
+                    tasks.add(() -> propagate(values, counters, positions, loss, next));
+                }
+                frontier = invokeAll(executor, tasks);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return values;
+    }
+
+    private static List<IntList> invokeAll(ExecutorService executor, List<Callable<IntList>> tasks)
+            throws InterruptedException {
+        var result = new ArrayList<IntList>(tasks.size());
+        for (Future<IntList> future : executor.invokeAll(tasks)) {
+            try {
+                var positions = future.get();
+                if (positions.size() > 0) {
+                    result.add(positions);
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marks the lost positions of a range and counts the moves of the others.
+     */
+    private IntList initialize(byte[] values, byte[] counters, int from, int to) {
+        var lost = new IntList();
+        for (int i = from; i < to; ++i) {
+            long blue = index.blue(i);
+            long red = index.red(i, blue);
+            var player = TablebaseIndex.player(i);
+            long own = player == Player.BLUE ? blue : red;
+            long opponent = own ^ blue ^ red;
+            long goal = Board.rowMask(Board.goalRow(player.other()));
+            long free = Board.ALL & ~(blue | red | TablebaseIndex.FORBIDDEN);
+            int moves = MoveGenerator.count(own, free);
+            if ((opponent & ~goal) == 0 || moves == 0) {
+                values[i] = 1;
+                lost.add(i);
+            } else {
+                counters[i] = (byte) moves;
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * Decides the predecessors of positions lost or won in the previous step.
+     */
+    private IntList propagate(byte[] values, byte[] counters, IntList positions, boolean loss, int next) {
+        var decided = new IntList();
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        for (int p = 0; p < positions.size(); ++p) {
+            int position = positions.get(p);
+            long blue = index.blue(position);
+            long red = index.red(position, blue);
+            var mover = TablebaseIndex.player(position).other();
+            long free = Board.ALL & ~(blue | red | TablebaseIndex.FORBIDDEN);
+            int count = MoveGenerator.generate(mover == Player.BLUE ? blue : red, free, moves, 0);
+            for (int m = 0; m < count; ++m) {
+                long cells = Move.fromMask(moves[m]) | Move.toMask(moves[m]);
+                int previous = mover == Player.BLUE
+                        ? (int) index.index(blue ^ cells, red, mover)
+                        : (int) index.index(blue, red ^ cells, mover);
+                if ((byte) BYTES.getVolatile(values, previous) != 0) {
+                    continue;
+                }
+                if (loss) {
+                    if (BYTES.compareAndSet(values, previous, (byte) 0, (byte) next)) {
+                        decided.add(previous);
+                    }
+                } else if (decrement(counters, previous) == 0
+                        && BYTES.compareAndSet(values, previous, (byte) 0, (byte) next)) {
+                    decided.add(previous);
+                }
+            }
+        }
+        return decided;
+    }
+
+    /**
+     * Atomically decrements a counter with a compare-and-set loop.
+     *
+     * @return the decremented value
+     */
+    private static int decrement(byte[] counters, int i) {
+        byte count;
+        do {
+            count = (byte) BYTES.getVolatile(counters, i);
+        } while (!BYTES.weakCompareAndSet(counters, i, count, (byte) (count - 1)));
+        return count - 1;
+    }
+
+    /**
+     * Solves the positions with a number of figures per side and writes them to a tablebase file.
+     *
+     * @param args the number of figures per side, the path of the file and the number of threads, the last one
+     *             optional
+     * @throws IOException          if the file cannot be written
+     * @throws InterruptedException if the thread is interrupted while solving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseSolver <figures per side> <file> [threads]");
+            return;
+        }
+        var index = new TablebaseIndex(Integer.parseInt(args[0]));
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        var values = new TablebaseSolver(index, threads).solve();
+        System.out.printf("%d positions solved in %d ms%n", values.length, (System.nanoTime() - start) / 1_000_000);
+        Tablebase.write(Path.of(args[1]), index, values);
+    }
+
+    /**
+     * Growable list of positions.
+     */
+    private static final class IntList {
+
+        private int[] elements = new int[64];
+        private int size;
+
+        private void add(int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = element;
+        }
+
+        private int get(int i) {
+            return elements[i];
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
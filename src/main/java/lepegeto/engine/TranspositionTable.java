@@ -0,0 +1,190 @@
+package lepegeto.engine;
+
+import lepegeto.model.Zobrist;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size cache of search results keyed by {@link Zobrist} keys, shared by any number of search threads.
+ *
+ * <p>Every entry is a single packed {@code long} holding the move, score, depth, bound type and age,
+ * and is stored next to its key exclusive-or'ed with the entry. A reader only accepts an entry if the two
+ * words decode to the probed key, so a slot torn by concurrent writers is rejected instead of returning
+ * another position's data, and no locks are needed.</p>
+ *
+ * <p>The slots are grouped in buckets of two: the first slot keeps the deepest result of the current search,
+ * the second one is always replaced.</p>
+ */
+public final class TranspositionTable {
+
+    /**
+     * Bound type of a score that is exact.
+     */
+    public static final int EXACT = 1;
+    /**
+     * Bound type of a score that is a lower bound, the search failed high.
+     */
+    public static final int LOWER = 2;
+    /**
+     * Bound type of a score that is an upper bound, the search failed low.
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * The value {@link #probe} returns if the position is not in the table.
+     */
+    public static final long MISS = 0;
+
+    private static final int MOVE_BITS = 16;
+    private static final int SCORE_BITS = 22;
+    private static final int DEPTH_BITS = 8;
+    private static final int BOUND_BITS = 2;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int AGE_SHIFT = BOUND_SHIFT + BOUND_BITS;
+    private static final int SCORE_OFFSET = 1 << (SCORE_BITS - 1);
+
+    /**
+     * Two words per slot, two slots per bucket.
+     */
+    private static final int WORDS_PER_BUCKET = 4;
+
+    private final AtomicLongArray table;
+    private final long bucketMask;
+    private volatile int age;
+
+    /**
+     * Creates a {@code TranspositionTable} with the largest power of two number of buckets fitting the size.
+     *
+     * @param megabytes the size of the table in megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / (WORDS_PER_BUCKET * Long.BYTES)));
+        buckets = Math.min(buckets, Integer.MAX_VALUE / WORDS_PER_BUCKET + 1);
+        table = new AtomicLongArray((int) (buckets * WORDS_PER_BUCKET));
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return table.length() / 2;
+    }
+
+    /**
+     * Marks the start of a new search, so the entries of the previous searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xff;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); ++i) {
+            table.setOpaque(i, 0);
+        }
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the key of the position
+     * @return the packed entry of the position, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int base = index(key);
+        for (int slot = base; slot < base + WORDS_PER_BUCKET; slot += 2) {
+            long data = table.getOpaque(slot + 1);
+            if (data != MISS && (table.getOpaque(slot) ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of searching a position.
+     *
+     * @param key   the key of the position
+     * @param move  the best move found, or {@link SearchResult#NO_MOVE}
+     * @param score the score of the position
+     * @param depth the depth of the search
+     * @param bound the bound type of the score
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long data = pack(move, score, depth, bound, age);
+        int base = index(key);
+        long preferred = table.getOpaque(base + 1);
+        boolean samePosition = (table.getOpaque(base) ^ preferred) == key;
+        if (preferred == MISS || samePosition || age(preferred) != age || depth >= depth(preferred)) {
+            table.setOpaque(base, key ^ data);
+            table.setOpaque(base + 1, data);
+        } else {
+            table.setOpaque(base + 2, key ^ data);
+            table.setOpaque(base + 3, data);
+        }
+    }
+
+    private int index(long key) {
+        return (int) ((key >>> 1) & bucketMask) * WORDS_PER_BUCKET;
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xffffL)
+                | ((long) (score + SCORE_OFFSET) << SCORE_SHIFT)
+                | ((long) Math.min(depth, (1 << DEPTH_BITS) - 1) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+    }
+
+    /**
+     * Returns the move of an entry.
+     *
+     * @param entry the packed entry
+     * @return the best move, or {@link SearchResult#NO_MOVE}
+     */
+    public static int move(long entry) {
+        int move = (int) (entry & 0xffff);
+        return move == 0xffff ? SearchResult.NO_MOVE : move;
+    }
+
+    /**
+     * Returns the score of an entry.
+     *
+     * @param entry the packed entry
+     * @return the score
+     */
+    public static int score(long entry) {
+        return (int) ((entry >>> SCORE_SHIFT) & ((1L << SCORE_BITS) - 1)) - SCORE_OFFSET;
+    }
+
+    /**
+     * Returns the depth of an entry.
+     *
+     * @param entry the packed entry
+     * @return the depth the score was searched to
+     */
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1));
+    }
+
+    /**
+     * Returns the bound type of an entry.
+     *
+     * @param entry the packed entry
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1));
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> AGE_SHIFT) & 0xff);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Computer players of the Game.
+ */
+package lepegeto.engine;
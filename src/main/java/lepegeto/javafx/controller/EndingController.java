@@ -9,28 +9,79 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import lepegeto.results.GameResult;
-import lepegeto.results.ResultManager;
+import lepegeto.results.Leaderboard;
+import lepegeto.results.PlayerStats;
+import lepegeto.results.Rating;
+import lepegeto.results.ResultRecorder;
+import lepegeto.results.ResultStore;
 import org.tinylog.Logger;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Controller class for the end screen of the game.
+ *
+ * <p>The screen opens with the best results held in memory by the {@link Leaderboard}. Further results are
+ * read from the database a page at a time when the table is scrolled near the last row shown, so opening the
+ * screen costs the same however many games have been played.</p>
+ *
+ * <p>The players who won the most games are shown on a tab of their own, read from the statistics kept by the
+ * {@link ResultStore} when the tab is first selected, and so are the best rated players.</p>
+ *
+ * <p>Nothing is read on the JavaFX thread: the screen is shown at once with placeholders, the rows are read on a
+ * background thread and handed to their table in one {@link Platform#runLater} call. Leaving the screen cancels
+ * the reads not started yet and drops the rows of the one running, which is not interrupted, as interrupting
+ * a thread doing I/O closes the files of the database.</p>
  */
 public class EndingController {
 
+    /**
+     * The number of results read at a time.
+     */
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * The next page is read when a row this close to the end of the table is shown.
+     */
+    private static final int PREFETCH = 10;
+
+    /**
+     * The number of players shown.
+     */
+    private static final int TOP_PLAYERS = 100;
+
+    /**
+     * Reads the rows of every end screen, one read at a time. Its thread is a daemon, so it never keeps the
+     * application running.
+     */
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "ending-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @FXML
     private TextField winnerTextField;
 
@@ -52,11 +103,71 @@ public class EndingController {
     @FXML
     private TableColumn<GameResult, ZonedDateTime> created;
 
+    @FXML
+    private Tab playersTab;
+
+    @FXML
+    private TableView<PlayerStats> playerTable;
+
+    @FXML
+    private TableColumn<PlayerStats, String> playerName;
+
+    @FXML
+    private TableColumn<PlayerStats, Integer> playerGames;
+
+    @FXML
+    private TableColumn<PlayerStats, Integer> playerWins;
+
+    @FXML
+    private TableColumn<PlayerStats, Integer> playerMinSteps;
+
+    @FXML
+    private TableColumn<PlayerStats, Double> playerAverageSteps;
+
+    @FXML
+    private Tab ratingsTab;
+
+    @FXML
+    private TableView<Rating> ratingTable;
+
+    @FXML
+    private TableColumn<Rating, String> ratingName;
+
+    @FXML
+    private TableColumn<Rating, Double> ratingValue;
+
+    @FXML
+    private TableColumn<Rating, Integer> ratingGames;
+
+    @Inject
+    private ResultStore store;
+
+    @Inject
+    private ResultRecorder recorder;
+
+    @Inject
+    private Leaderboard leaderboard;
+
+    @Inject
+    private Provider<FXMLLoader> fxmlLoaderProvider;
+
+    private final ObservableList<GameResult> highScores = FXCollections.observableArrayList();
+
+    private final List<Future<?>> loads = new ArrayList<>();
+
+    private volatile boolean closed;
+
+    private boolean lastPageLoaded;
+
+    private boolean pageLoading;
+
+    private boolean playersRequested;
+
+    private boolean ratingsRequested;
+
     @FXML
     private void initialize() {
         Logger.debug("Loading high scores...");
-        var manager = new ResultManager();
-        List<GameResult> highScoreList = manager.fetch();
 
         winner.setCellValueFactory(new PropertyValueFactory<>("winner"));
         player1.setCellValueFactory(new PropertyValueFactory<>("player1"));
@@ -80,10 +191,148 @@ public class EndingController {
             return cell;
         });
 
-        ObservableList<GameResult> observableResult = FXCollections.observableArrayList();
-        observableResult.addAll(highScoreList);
+        highScoreTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= highScores.size() - PREFETCH) {
+                    requestNextPage();
+                }
+            }
+        });
+        highScoreTable.setItems(highScores);
+        highScoreTable.setPlaceholder(new Label("Loading high scores..."));
+        pageLoading = true;
+        load(() -> leaderboard.top(leaderboard.getCapacity()), top -> {
+            pageLoading = false;
+            lastPageLoaded = top.size() < leaderboard.getCapacity();
+            highScores.setAll(top);
+            highScoreTable.setPlaceholder(new Label("No games yet"));
+        });
+
+        playerName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        playerGames.setCellValueFactory(new PropertyValueFactory<>("games"));
+        playerWins.setCellValueFactory(new PropertyValueFactory<>("wins"));
+        playerMinSteps.setCellValueFactory(new PropertyValueFactory<>("minSteps"));
+        playerAverageSteps.setCellValueFactory(new PropertyValueFactory<>("averageSteps"));
+        playerAverageSteps.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.1f", item));
+            }
+        });
+        playerTable.setPlaceholder(new Label("Loading players..."));
+        playersTab.setOnSelectionChanged(event -> {
+            if (playersTab.isSelected() && !playersRequested) {
+                playersRequested = true;
+                loadPlayers();
+            }
+        });
+
+        ratingName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        ratingValue.setCellValueFactory(new PropertyValueFactory<>("rating"));
+        ratingValue.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.0f", item));
+            }
+        });
+        ratingGames.setCellValueFactory(new PropertyValueFactory<>("games"));
+        ratingTable.setPlaceholder(new Label("Loading ratings..."));
+        ratingsTab.setOnSelectionChanged(event -> {
+            if (ratingsTab.isSelected() && !ratingsRequested) {
+                ratingsRequested = true;
+                loadRatings();
+            }
+        });
+    }
+
+    /**
+     * Reads rows on the background thread, then hands them to the JavaFX thread unless the screen was left.
+     *
+     * @param query reads the rows
+     * @param apply shows the rows, called on the JavaFX thread
+     * @param <T>   the type of the rows
+     */
+    private <T> void load(Callable<List<T>> query, Consumer<List<T>> apply) {
+        loads.removeIf(Future::isDone);
+        loads.add(LOADER.submit(() -> {
+            try {
+                var rows = query.call();
+                Platform.runLater(() -> {
+                    if (!closed) {
+                        apply.accept(rows);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (!closed) {
+                    Logger.error(e, "Cannot load the results");
+                }
+            }
+        }));
+    }
+
+    /**
+     * Cancels the reads not started yet, and drops the rows of the others.
+     */
+    private void close() {
+        closed = true;
+        for (var future : loads) {
+            future.cancel(false);
+        }
+        loads.clear();
+    }
+
+    private void loadPlayers() {
+        load(() -> {
+            // The statistics are updated when the results are stored, including the game just finished.
+            recorder.flush();
+            return store.fetchTopPlayers(TOP_PLAYERS);
+        }, players -> {
+            playerTable.getItems().setAll(players);
+            playerTable.setPlaceholder(new Label("No players yet"));
+            Logger.debug("Loaded {} players", players.size());
+        });
+    }
+
+    private void loadRatings() {
+        load(() -> {
+            recorder.flush();
+            return store.fetchTopRatings(TOP_PLAYERS);
+        }, ratings -> {
+            ratingTable.getItems().setAll(ratings);
+            ratingTable.setPlaceholder(new Label("No rated games yet"));
+            Logger.debug("Loaded {} ratings", ratings.size());
+        });
+    }
 
-        highScoreTable.setItems(observableResult);
+    /**
+     * Reads the next page unless one is being read. The rows are added in a later pulse, as rows must not be
+     * added while they are laid out.
+     */
+    private void requestNextPage() {
+        if (lastPageLoaded || pageLoading) {
+            return;
+        }
+        pageLoading = true;
+        var last = highScores.isEmpty() ? null : highScores.get(highScores.size() - 1);
+        load(() -> {
+            // Pages continue from the id of the last result shown, which is only known once it is stored.
+            recorder.flush();
+            if (last != null && last.getId() == 0) {
+                return List.of();
+            }
+            return store.fetchPage(last, PAGE_SIZE);
+        }, page -> {
+            pageLoading = false;
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            highScores.addAll(page);
+            Logger.debug("Loaded {} high scores", highScores.size());
+        });
     }
 
     /**
@@ -103,6 +352,7 @@ public class EndingController {
      */
     public void onExit(ActionEvent event) {
         Logger.info("Player has exited from endscreen");
+        close();
         Platform.exit();
     }
 
@@ -113,8 +363,11 @@ public class EndingController {
      * @throws IOException if fmxl file not found or IO related error happens.
      */
     public void onMainMenu(ActionEvent event) throws IOException {
+        close();
         var stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        Parent root = FXMLLoader.load(getClass().getResource("/fxml/opening.fxml"));
+        FXMLLoader fxmlLoader = fxmlLoaderProvider.get();
+        fxmlLoader.setLocation(getClass().getResource("/fxml/opening.fxml"));
+        Parent root = fxmlLoader.load();
         stage.setTitle("Jatek");
         stage.setResizable(false);
         stage.setScene(new Scene(root));
@@ -18,15 +18,14 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import lepegeto.model.*;
 import lepegeto.results.GameResult;
-import lepegeto.results.ResultManager;
+import lepegeto.results.ResultRecorder;
 import lombok.SneakyThrows;
 import org.tinylog.Logger;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,6 +46,17 @@ public class GameController {
 
     private GameState gameState;
 
+    @Inject
+    private ResultRecorder resultRecorder;
+
+    @Inject
+    private Provider<FXMLLoader> fxmlLoaderProvider;
+
+    /**
+     * The squares of the board, indexed by {@link Cell#getIndex}.
+     */
+    private final StackPane[] squares = new StackPane[Board.CELLS];
+
     /**
      * Initializes a game with a default state.
      */
@@ -64,11 +74,11 @@ public class GameController {
         gameState = state;
         gameBoard.getChildren().clear();
 
-        for (int i = 0; i < gameBoard.getRowCount(); i++) {
-            for (int j = 0; j < gameBoard.getColumnCount(); j++) {
-                var square = createSquare(gameState.owner(new Position(i, j)));
-                gameBoard.add(square, j, i);
-            }
+        for (var cell : Cell.all()) {
+            var square = createSquare(gameState.owner(cell));
+            square.setUserData(cell);
+            squares[cell.getIndex()] = square;
+            gameBoard.add(square, cell.getCol(), cell.getRow());
         }
         clearMessage();
 
@@ -109,12 +119,7 @@ public class GameController {
 
     private Position getPositionOfEvent(MouseEvent event) {
         var square = (StackPane) event.getSource();
-        var figure = (Circle) square.getChildren().get(0);
-
-        var row = GridPane.getRowIndex(square);
-        var col = GridPane.getColumnIndex(square);
-
-        return new Position(row, col);
+        return ((Cell) square.getUserData()).toPosition();
     }
 
     private Color getGhostColor() {
@@ -157,44 +162,49 @@ public class GameController {
 
     private void onLeftClick(MouseEvent event) {
         Position position = getPositionOfEvent(event);
-        Logger.info(String.format("Player clicked on position %s", position.toString()));
+        Logger.info("Player clicked on position {}", position);
 
-        try {
-            gameState.addSelection(position);
+        var result = gameState.trySelect(position);
+        if (result.isSuccess()) {
             getFigureOfEvent(event).setFill(getDarkColor());
-        } catch(IllegalArgumentException e) {
-            setMessage("You've already selected that one");
-            Logger.warn("Invalid selection: figure already selected");
-        } catch(IllegalStateException e) {
-            setMessage("You shall not select more!");
-            Logger.warn("Invalid selection: cannot select more figure");
-        } catch(IllegalCallerException e) {
-            setMessage("Not yours to command, that one!");
-            Logger.warn("Invalid selection: not current player figure");
+        } else {
+            setMessage(getMessage(result));
         }
 
     }
 
     private void onRightClick(MouseEvent event) {
         Position position = getPositionOfEvent(event);
-        Logger.info(String.format("Player clicked on position %s", position.toString()));
+        Logger.info("Player clicked on position {}", position);
 
-        try{
-            gameState.addGhost(position);
+        var result = gameState.tryAddGhost(position);
+        if (result.isSuccess()) {
             getFigureOfEvent(event).setFill(getGhostColor());
-            Logger.info("Valid move target");
-        } catch(IllegalArgumentException e) {
-            setMessage("You've already moved that one!");
-            Logger.warn("Invalid move target: already moved");
-        } catch(IllegalStateException e) {
-            setMessage("You shall not move more!");
-            Logger.warn("Invalid move target: maximum move targets");
-        } catch(IllegalCallerException e) {
-            setMessage("You shall not go there!");
-            Logger.warn("Invalid move target: invalid target position");
+        } else {
+            setMessage(getMessage(result));
         }
     }
 
+    /**
+     * Returns the message shown to the player for a rejected step of a move.
+     *
+     * @param result the result of the step
+     * @return the text of the message
+     */
+    private static String getMessage(MoveResult result) {
+        return switch (result) {
+            case ALREADY_SELECTED -> "You've already selected that one";
+            case TOO_MANY_SELECTED -> "You shall not select more!";
+            case NOT_OWN_FIGURE -> "Not yours to command, that one!";
+            case ALREADY_TARGETED -> "You've already moved that one!";
+            case TOO_MANY_TARGETS -> "You shall not move more!";
+            case TARGET_NOT_FREE -> "You shall not go there!";
+            case INCOMPLETE_MOVE -> "Please, make your moves!";
+            case DIRECTION_MISMATCH -> "Invalid move! Try something else!";
+            case OK, WIN -> "";
+        };
+    }
+
     private void onMouseClick(MouseEvent event) {
         clearMessage();
         switch (event.getButton()) {
@@ -204,15 +214,12 @@ public class GameController {
     }
 
     private StackPane getSquareByPosition(int row, int col) {
-        for (var square : gameBoard.getChildren()) {
-            if (square instanceof StackPane) {
-                if (GridPane.getColumnIndex(square) == col && GridPane.getRowIndex(square) == row) {
-                    return (StackPane) square;
-                }
-            }
+        int cell = Board.cell(row, col);
+        if (cell >= 0 && squares[cell] != null) {
+            return squares[cell];
         }
 
-        Logger.error(String.format("Invalid coordinates: row=%d col=%d", row, col));
+        Logger.error("Invalid coordinates: row={} col={}", row, col);
         throw new IllegalArgumentException();
     }
 
@@ -283,24 +290,20 @@ public class GameController {
         Logger.info("endTurnButton clicked");
         var selected = (ArrayList<Position>) gameState.getSelected().clone();
         var ghosts = (ArrayList<Position>) gameState.getGhosts().clone();
-        try {
-            var won = gameState.endTurn();
-
-            repaintOnMove(selected, ghosts);
-            if (won) {
-                Logger.info("A player has won the game");
-                onYield(event);
-            } else {
-                Logger.info("Next turn");
-                setCurrentPlayerText();
-                clearMessage();
-            }
-        } catch(IllegalArgumentException e) {
-            setMessage("Please, make your moves!");
-            Logger.warn("Not enough moves");
-        } catch(IllegalStateException e) {
-            setMessage("Invalid move! Try something else!");
-            Logger.warn("Invalid move");
+        var result = gameState.tryEndTurn();
+        if (!result.isSuccess()) {
+            setMessage(getMessage(result));
+            return;
+        }
+
+        repaintOnMove(selected, ghosts);
+        if (result == MoveResult.WIN) {
+            Logger.info("A player has won the game");
+            onYield(event);
+        } else {
+            Logger.info("Next turn");
+            setCurrentPlayerText();
+            clearMessage();
         }
     }
 
@@ -314,14 +317,15 @@ public class GameController {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save As");
 
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Save File", "*.xml"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Save File", "*.xml"),
+                new FileChooser.ExtensionFilter("Binary Save File", "*" + GameStateCodec.EXTENSION));
         File selected = fileChooser.showSaveDialog(gameBoard.getScene().getWindow());
 
         if (selected != null) {
             try {
-                util.jaxb.JAXBHelper.toXML(gameState, new FileOutputStream(selected));
-                Logger.info(String.format("File saved at %s", selected.getAbsolutePath()));
-            } catch (JAXBException | FileNotFoundException e) {
+                GameStateCodec.save(gameState, selected.toPath());
+                Logger.info("File saved at {}", selected.getAbsolutePath());
+            } catch (JAXBException | IOException e) {
                 setMessage("Error while saving file.");
                 Logger.error("Error while saving file.");
             }
@@ -340,16 +344,17 @@ public class GameController {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Open");
 
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Save File", "*.xml"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Save File", "*.xml"),
+                new FileChooser.ExtensionFilter("Binary Save File", "*" + GameStateCodec.EXTENSION));
         File selected = fileChooser.showOpenDialog(gameBoard.getScene().getWindow());
 
         if (selected != null) {
             try {
-                var newState = util.jaxb.JAXBHelper.fromXML(GameState.class, new FileInputStream(selected));
+                var newState = GameStateCodec.load(selected.toPath());
                 gameState.clearSelection();
                 initialize(newState);
-                Logger.info(String.format("Gamestate loaded from %s", selected.getAbsolutePath()));
-            } catch (JAXBException | FileNotFoundException e) {
+                Logger.info("Gamestate loaded from {}", selected.getAbsolutePath());
+            } catch (JAXBException | IOException e) {
                 setMessage("Error while loading file.");
                 Logger.error("Error while loading file.");
             }
@@ -368,15 +373,16 @@ public class GameController {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save As");
 
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Save File", "*.xml"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Save File", "*.xml"),
+                new FileChooser.ExtensionFilter("Binary Save File", "*" + GameStateCodec.EXTENSION));
         File selected = fileChooser.showSaveDialog(gameBoard.getScene().getWindow());
 
         if (selected != null) {
             try {
-                util.jaxb.JAXBHelper.toXML(gameState, new FileOutputStream(selected));
+                GameStateCodec.save(gameState, selected.toPath());
                 Logger.info("Exiting from Game UI");
                 Platform.exit();
-            } catch (JAXBException | FileNotFoundException e) {
+            } catch (JAXBException | IOException e) {
                 setMessage("Error while saving file.");
                 Logger.error("Error while saving file.");
             }
@@ -406,10 +412,10 @@ public class GameController {
         Logger.info("yieldButton clicked");
         gameState.nextPlayer();
 
-        ResultManager resultManager = new ResultManager();
-        resultManager.insert(createGameResult());
+        resultRecorder.record(createGameResult());
 
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/ending.fxml"));
+        FXMLLoader fxmlLoader = fxmlLoaderProvider.get();
+        fxmlLoader.setLocation(getClass().getResource("/fxml/ending.fxml"));
         Parent root = fxmlLoader.load();
 
         var controller = (EndingController) fxmlLoader.getController();
@@ -12,13 +12,13 @@ import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import lepegeto.model.GameState;
+import lepegeto.model.GameStateCodec;
 import lepegeto.model.Player;
 import org.tinylog.Logger;
 
+import javax.inject.Inject;
+import javax.inject.Provider;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.HashMap;
 
@@ -33,6 +33,9 @@ public class OpeningController {
     @FXML
     TextField player2TextField;
 
+    @Inject
+    private Provider<FXMLLoader> fxmlLoaderProvider;
+
     private HashMap<Player, String> getNames() {
         var names = new HashMap<Player, String>();
 
@@ -54,7 +57,8 @@ public class OpeningController {
             return;
         }
 
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/game.fxml"));
+        FXMLLoader fxmlLoader = fxmlLoaderProvider.get();
+        fxmlLoader.setLocation(getClass().getResource("/fxml/game.fxml"));
         Parent root = fxmlLoader.load();
 
         var controller = (GameController) fxmlLoader.getController();
@@ -77,14 +81,16 @@ public class OpeningController {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Open");
 
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Save File", "*.xml"));
+        fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Save File", "*.xml"),
+                new FileChooser.ExtensionFilter("Binary Save File", "*" + GameStateCodec.EXTENSION));
         File selected = fileChooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
 
         if (selected != null) {
             try {
-                var state = util.jaxb.JAXBHelper.fromXML(GameState.class, new FileInputStream(selected));
+                var state = GameStateCodec.load(selected.toPath());
 
-                FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/game.fxml"));
+                FXMLLoader fxmlLoader = fxmlLoaderProvider.get();
+                fxmlLoader.setLocation(getClass().getResource("/fxml/game.fxml"));
                 Parent root = fxmlLoader.load();
 
                 var controller = (GameController) fxmlLoader.getController();
@@ -95,7 +101,7 @@ public class OpeningController {
                 stage.show();
                 Logger.info("Player loaded the game from Main Menu");
 
-            } catch (JAXBException | FileNotFoundException e) {
+            } catch (JAXBException | IOException e) {
                 e.printStackTrace();
                 Logger.error("Error has occured in Main Menu while reading and initializing new stage and gamestate");
             }
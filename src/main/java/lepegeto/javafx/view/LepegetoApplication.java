@@ -1,32 +1,68 @@
 package lepegeto.javafx.view;
 
 import com.gluonhq.ignite.guice.GuiceContext;
-import com.google.inject.AbstractModule;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import lepegeto.results.ResultManager;
+import lepegeto.results.ResultModule;
+import lepegeto.results.ResultRecorder;
+import lepegeto.results.ResultRetention;
+import lepegeto.results.ResultStore;
 
 
 import javax.inject.Inject;
+import java.time.Period;
 import java.util.List;
 
 /**
  * A class that represents the JavaFX application.
+ *
+ * <p>The controllers are created by Guice, so the application-scoped services, like the {@link ResultStore},
+ * are shared by every screen.</p>
+ *
+ * <p>If the {@value ResultRetention#RETENTION_DAYS_PROPERTY} system property is set and the results are kept in
+ * a database, the expired results are rolled up in the background while the application runs.</p>
  */
 public class LepegetoApplication extends Application {
 
+    private final GuiceContext context = new GuiceContext(this, () -> List.of(new ResultModule()));
 
     @Inject
     private FXMLLoader fxmlLoader;
 
+    @Inject
+    private ResultStore resultStore;
+
+    @Inject
+    private ResultRecorder resultRecorder;
+
+    private ResultRetention resultRetention;
+
     @Override
     public void start(Stage stage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("/fxml/opening.fxml"));
+        context.init();
+        Integer retentionDays = Integer.getInteger(ResultRetention.RETENTION_DAYS_PROPERTY);
+        if (retentionDays != null && resultStore instanceof ResultManager manager) {
+            resultRetention = new ResultRetention(manager, Period.ofDays(retentionDays));
+            resultRetention.schedule(ResultRetention.DEFAULT_PERIOD);
+        }
+        fxmlLoader.setLocation(getClass().getResource("/fxml/opening.fxml"));
+        Parent root = fxmlLoader.load();
         stage.setTitle("Jatek");
         stage.setResizable(false);
         stage.setScene(new Scene(root));
         stage.show();
     }
+
+    @Override
+    public void stop() {
+        if (resultRetention != null) {
+            resultRetention.close();
+        }
+        resultRecorder.close();
+        resultStore.close();
+    }
 }
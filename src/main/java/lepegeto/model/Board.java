@@ -0,0 +1,429 @@
+package lepegeto.model;
+
+/**
+ * Bitboard representation of the game board.
+ *
+ * <p>Every cell of the {@code 5 x 5} board has an index of {@code row * SIZE + col},
+ * and the blue, red and forbidden cells are stored as 25-bit masks, where bit {@code i}
+ * is set if cell {@code i} belongs to the set.</p>
+ */
+public final class Board implements Cloneable {
+
+    /**
+     * The number of rows and columns of the board.
+     */
+    public static final int SIZE = 5;
+    /**
+     * The number of cells on the board.
+     */
+    public static final int CELLS = SIZE * SIZE;
+    /**
+     * Mask with a bit set for every cell of the board.
+     */
+    public static final long ALL = (1L << CELLS) - 1;
+    /**
+     * The number of figures of a player at the start of the game, which is never exceeded.
+     */
+    public static final int FIGURES = SIZE;
+    /**
+     * Mask of the cells inaccessible to both sides.
+     */
+    public static final long FORBIDDEN = bit(cell(1, 1)) | bit(cell(1, 3)) | bit(cell(3, 1)) | bit(cell(3, 3));
+
+    /**
+     * The cells occupied by Blue.
+     */
+    private long blue;
+    /**
+     * The cells occupied by Red.
+     */
+    private long red;
+    /**
+     * The cells inaccessible to both sides.
+     */
+    private long forbidden;
+    /**
+     * The {@link Zobrist} key of the figures, kept up to date by the moves.
+     */
+    private long key;
+
+    /**
+     * Creates a {@code Board} that corresponds to the initial state of the game.
+     */
+    public Board() {
+        this(rowMask(0), rowMask(SIZE - 1), FORBIDDEN);
+    }
+
+    /**
+     * Creates a {@code Board} from the given masks.
+     *
+     * @param blue      the cells occupied by Blue
+     * @param red       the cells occupied by Red
+     * @param forbidden the forbidden cells
+     */
+    public Board(long blue, long red, long forbidden) {
+        this.blue = blue;
+        this.red = red;
+        this.forbidden = forbidden;
+        this.key = Zobrist.pieces(Player.BLUE, blue) ^ Zobrist.pieces(Player.RED, red);
+    }
+
+    /**
+     * Creates a {@code Board} from arrays of positions.
+     *
+     * @param blue      the positions of Blue
+     * @param red       the positions of Red
+     * @param forbidden the forbidden positions
+     * @return the board holding the given positions
+     * @throws IllegalArgumentException if any of the positions is not on the board
+     */
+    public static Board of(Position[] blue, Position[] red, Position[] forbidden) {
+        return new Board(mask(blue), mask(red), mask(forbidden));
+    }
+
+    private static long mask(Position[] positions) {
+        long mask = 0;
+        for (var position : positions) {
+            int cell = cell(position);
+            if (cell < 0) {
+                throw new IllegalArgumentException(String.format("%s is not on the board", position));
+            }
+            mask |= bit(cell);
+        }
+        return mask;
+    }
+
+    /**
+     * Overwrites this board with the contents of another one, without allocating.
+     *
+     * @param other the board to copy
+     */
+    public void copyFrom(Board other) {
+        blue = other.blue;
+        red = other.red;
+        forbidden = other.forbidden;
+        key = other.key;
+    }
+
+    /**
+     * Returns whether the given coordinates are on the board.
+     *
+     * @param row the row coordinate
+     * @param col the column coordinate
+     * @return whether the coordinates are on the board
+     */
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    /**
+     * Returns the index of the cell with the given coordinates.
+     *
+     * @param row the row coordinate
+     * @param col the column coordinate
+     * @return the index of the cell, or {@code -1} if the coordinates are not on the board
+     */
+    public static int cell(int row, int col) {
+        return isOnBoard(row, col) ? row * SIZE + col : -1;
+    }
+
+    /**
+     * Returns the index of the cell of a {@link Position}.
+     *
+     * @param position the position
+     * @return the index of the cell, or {@code -1} if the position is not on the board
+     */
+    public static int cell(Position position) {
+        return cell(position.getRow(), position.getCol());
+    }
+
+    /**
+     * Returns the row coordinate of a cell.
+     *
+     * @param cell the index of the cell
+     * @return the row coordinate
+     */
+    public static int row(int cell) {
+        return cell / SIZE;
+    }
+
+    /**
+     * Returns the column coordinate of a cell.
+     *
+     * @param cell the index of the cell
+     * @return the column coordinate
+     */
+    public static int col(int cell) {
+        return cell % SIZE;
+    }
+
+    /**
+     * Returns the mask with only the bit of the given cell set.
+     *
+     * @param cell the index of the cell
+     * @return the mask of the cell
+     */
+    public static long bit(int cell) {
+        return 1L << cell;
+    }
+
+    /**
+     * Returns the mask of a row.
+     *
+     * @param row the row coordinate
+     * @return the mask of every cell of the row, or {@code 0} if the row is not on the board
+     */
+    public static long rowMask(int row) {
+        if (row < 0 || row >= SIZE) {
+            return 0;
+        }
+        return ((1L << SIZE) - 1) << (row * SIZE);
+    }
+
+    /**
+     * Returns the row a player has to reach with all of his figures.
+     *
+     * @param player the player
+     * @return the row coordinate of the goal of the player
+     */
+    public static int goalRow(Player player) {
+        return player == Player.BLUE ? SIZE - 1 : 0;
+    }
+
+    /**
+     * Returns the cells occupied by Blue.
+     *
+     * @return the mask of the blue cells
+     */
+    public long getBlue() {
+        return blue;
+    }
+
+    /**
+     * Returns the cells occupied by Red.
+     *
+     * @return the mask of the red cells
+     */
+    public long getRed() {
+        return red;
+    }
+
+    /**
+     * Returns the forbidden cells.
+     *
+     * @return the mask of the forbidden cells
+     */
+    public long getForbidden() {
+        return forbidden;
+    }
+
+    /**
+     * Returns the {@link Zobrist} key of the figures on the board.
+     * Combine it with {@link Zobrist#side} to get the key of a position.
+     *
+     * @return the key of the figures
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the cells occupied by a player.
+     *
+     * @param player the player
+     * @return the mask of the cells of the player
+     */
+    public long pieces(Player player) {
+        return player == Player.BLUE ? blue : red;
+    }
+
+    /**
+     * Returns the cells occupied by either player.
+     *
+     * @return the mask of the occupied cells
+     */
+    public long occupied() {
+        return blue | red;
+    }
+
+    /**
+     * Returns the cells a figure can move to.
+     *
+     * @return the mask of the cells owned by no one
+     */
+    public long free() {
+        return ALL & ~(blue | red | forbidden);
+    }
+
+    /**
+     * Returns whether a cell is owned by Blue.
+     *
+     * @param cell the index of the cell
+     * @return whether the cell is owned by Blue
+     */
+    public boolean isBlue(int cell) {
+        return (blue & bit(cell)) != 0;
+    }
+
+    /**
+     * Returns whether a cell is owned by Red.
+     *
+     * @param cell the index of the cell
+     * @return whether the cell is owned by Red
+     */
+    public boolean isRed(int cell) {
+        return (red & bit(cell)) != 0;
+    }
+
+    /**
+     * Returns whether a cell is forbidden.
+     *
+     * @param cell the index of the cell
+     * @return whether the cell is forbidden
+     */
+    public boolean isForbidden(int cell) {
+        return (forbidden & bit(cell)) != 0;
+    }
+
+    /**
+     * Returns whether a cell is owned by no one.
+     *
+     * @param cell the index of the cell
+     * @return whether the cell is free
+     */
+    public boolean isFree(int cell) {
+        return ((blue | red | forbidden) & bit(cell)) == 0;
+    }
+
+    /**
+     * Returns whether a cell is owned by a player.
+     *
+     * @param player the player
+     * @param cell   the index of the cell
+     * @return whether the cell is owned by {@code player}
+     */
+    public boolean isOccupiedBy(Player player, int cell) {
+        return (pieces(player) & bit(cell)) != 0;
+    }
+
+    /**
+     * Returns the {@link Owner} of a cell.
+     *
+     * @param cell the index of the cell
+     * @return the owner of the cell
+     */
+    public Owner owner(int cell) {
+        long bit = bit(cell);
+        if ((blue & bit) != 0) {
+            return Owner.BLUE;
+        } else if ((red & bit) != 0) {
+            return Owner.RED;
+        } else if ((forbidden & bit) != 0) {
+            return Owner.FORBIDDEN;
+        } else {
+            return Owner.NONE;
+        }
+    }
+
+    /**
+     * Moves a figure of a player from one cell to another.
+     * The caller is responsible for {@code from} being owned by the player and {@code to} being free.
+     *
+     * @param player the owner of the figure
+     * @param from   the index of the cell the figure stands on
+     * @param to     the index of the cell the figure moves to
+     */
+    public void move(Player player, int from, int to) {
+        long change = bit(from) | bit(to);
+        key ^= Zobrist.piece(player, from) ^ Zobrist.piece(player, to);
+        if (player == Player.BLUE) {
+            blue ^= change;
+        } else {
+            red ^= change;
+        }
+    }
+
+    /**
+     * Plays a legal move of a player, encoded as described in {@link Move}.
+     * Applying the same move again takes it back.
+     *
+     * @param player the player making the move
+     * @param move   the encoded move
+     */
+    public void apply(Player player, int move) {
+        int first = Move.first(move);
+        int second = Move.second(move);
+        int delta = Move.delta(Move.directionIndex(move));
+        long change = bit(first) | bit(second) | bit(first + delta) | bit(second + delta);
+        key ^= Zobrist.piece(player, first) ^ Zobrist.piece(player, second)
+                ^ Zobrist.piece(player, first + delta) ^ Zobrist.piece(player, second + delta);
+        if (player == Player.BLUE) {
+            blue ^= change;
+        } else {
+            red ^= change;
+        }
+    }
+
+    /**
+     * Returns whether every figure of a player is inside the given mask.
+     *
+     * @param player the player
+     * @param mask   the mask of the cells
+     * @return whether the figures of the player are all inside {@code mask}
+     */
+    public boolean isAllIn(Player player, long mask) {
+        return (pieces(player) & ~mask) == 0;
+    }
+
+    /**
+     * Returns whether every figure of a player has reached his goal row.
+     *
+     * @param player the player
+     * @return whether the player has reached his goal
+     */
+    public boolean isHome(Player player) {
+        return isAllIn(player, rowMask(goalRow(player)));
+    }
+
+    @Override
+    public Board clone() {
+        try {
+            return (Board) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+
+        return (o instanceof Board b) && b.blue == blue && b.red == red && b.forbidden == forbidden;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (int row = 0; row < SIZE; ++row) {
+            for (int col = 0; col < SIZE; ++col) {
+                switch (owner(cell(row, col))) {
+                    case BLUE -> sb.append('B');
+                    case RED -> sb.append('R');
+                    case FORBIDDEN -> sb.append('#');
+                    case NONE -> sb.append('.');
+                }
+            }
+            if (row < SIZE - 1) {
+                sb.append('/');
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package lepegeto.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable cell of the board.
+ *
+ * <p>There is exactly one {@code Cell} object per cell, created up front together with the table of
+ * the neighbours of every cell in every {@link Direction}, so looking up a cell or its neighbours never
+ * allocates and cells can be compared by identity. Unlike {@link Position}, a {@code Cell} is always on the
+ * board.</p>
+ */
+public final class Cell {
+
+    private static final Cell[] CELLS = new Cell[Board.CELLS];
+
+    /**
+     * The cell index of the neighbour of each cell in each direction, {@code -1} if it is off the board.
+     */
+    private static final int[][] NEIGHBOURS = new int[Board.CELLS][Direction.count()];
+
+    private static final List<Cell> ALL;
+
+    static {
+        for (int index = 0; index < Board.CELLS; ++index) {
+            CELLS[index] = new Cell(index);
+        }
+        for (int index = 0; index < Board.CELLS; ++index) {
+            for (int d = 0; d < Direction.count(); ++d) {
+                var direction = Direction.byOrdinal(d);
+                NEIGHBOURS[index][d] = Board.cell(Board.row(index) + direction.getRowChange(),
+                        Board.col(index) + direction.getColChange());
+            }
+        }
+        ALL = Collections.unmodifiableList(Arrays.asList(CELLS));
+    }
+
+    private final int index;
+    private final int row;
+    private final int col;
+
+    private Cell(int index) {
+        this.index = index;
+        this.row = Board.row(index);
+        this.col = Board.col(index);
+    }
+
+    /**
+     * Returns the cell of an index.
+     *
+     * @param index the index of the cell, as used by {@link Board}
+     * @return the cell
+     * @throws IllegalArgumentException if there is no such cell
+     */
+    public static Cell of(int index) {
+        if (index < 0 || index >= Board.CELLS) {
+            throw new IllegalArgumentException(String.format("Invalid cell index: %d", index));
+        }
+        return CELLS[index];
+    }
+
+    /**
+     * Returns the cell at a row and column.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell
+     * @throws IllegalArgumentException if the coordinates are off the board
+     */
+    public static Cell of(int row, int col) {
+        var cell = ofOrNull(row, col);
+        if (cell == null) {
+            throw new IllegalArgumentException(String.format("Invalid cell: (%d,%d)", row, col));
+        }
+        return cell;
+    }
+
+    /**
+     * Returns the cell at a row and column, without throwing for coordinates off the board.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell, or {@code null} if the coordinates are off the board
+     */
+    public static Cell ofOrNull(int row, int col) {
+        int index = Board.cell(row, col);
+        return index < 0 ? null : CELLS[index];
+    }
+
+    /**
+     * Returns the cell of a {@link Position}.
+     *
+     * @param position the position
+     * @return the cell, or {@code null} if the position is off the board
+     */
+    public static Cell ofOrNull(Position position) {
+        return ofOrNull(position.getRow(), position.getCol());
+    }
+
+    /**
+     * Returns every cell, in the order of their indexes.
+     *
+     * @return an unmodifiable list of the cells
+     */
+    public static List<Cell> all() {
+        return ALL;
+    }
+
+    /**
+     * Returns the index of the neighbour of a cell.
+     *
+     * @param index     the index of the cell
+     * @param direction the ordinal of the direction
+     * @return the index of the neighbour, or {@code -1} if it is off the board
+     */
+    public static int neighbour(int index, int direction) {
+        return NEIGHBOURS[index][direction];
+    }
+
+    /**
+     * Returns the neighbour of the cell in a direction.
+     *
+     * @param direction the direction
+     * @return the neighbour, or {@code null} if it is off the board
+     */
+    public Cell neighbour(Direction direction) {
+        int neighbour = NEIGHBOURS[index][direction.ordinal()];
+        return neighbour < 0 ? null : CELLS[neighbour];
+    }
+
+    /**
+     * Returns the direction leading from this cell to an adjacent one.
+     *
+     * @param target the other cell
+     * @return the direction, or {@code null} if the cells are not adjacent
+     */
+    public Direction directionTo(Cell target) {
+        return Direction.ofOrNull(target.row - row, target.col - col);
+    }
+
+    /**
+     * Returns the index of the cell.
+     *
+     * @return the index used by {@link Board}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the row of the cell.
+     *
+     * @return the Y coordinate
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Returns the column of the cell.
+     *
+     * @return the X coordinate
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Returns the bit of the cell.
+     *
+     * @return the mask of the cell on a {@link Board}
+     */
+    public long getBit() {
+        return Board.bit(index);
+    }
+
+    /**
+     * Returns a new {@link Position} at the cell.
+     *
+     * @return a position with the coordinates of the cell
+     */
+    public Position toPosition() {
+        return new Position(row, col);
+    }
+
+    /**
+     * Returns whether the cell is at the coordinates of a {@link Position}.
+     *
+     * @param position the position
+     * @return whether the coordinates are equal
+     */
+    public boolean isAt(Position position) {
+        return position.getRow() == row && position.getCol() == col;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d,%d)", row, col);
+    }
+}
@@ -46,6 +46,19 @@ public enum Direction {
      */
     private final int colChange;
 
+    private static final Direction[] VALUES = values();
+
+    /**
+     * The directions indexed by {@code (rowChange + 1) * 3 + colChange + 1}, {@code null} for no change.
+     */
+    private static final Direction[] BY_CHANGE = new Direction[9];
+
+    static {
+        for (var direction : VALUES) {
+            BY_CHANGE[(direction.rowChange + 1) * 3 + direction.colChange + 1] = direction;
+        }
+    }
+
     /**
      * Initializes a {@link Direction} with these two differences.
      *
@@ -65,12 +78,44 @@ public enum Direction {
      * @return the direction that corresponds to the coordinate changes specified.
      */
     public static Direction of(int rowChange, int colChange) throws IllegalArgumentException {
-        for (var direction : values()) {
-            if (direction.rowChange == rowChange && direction.colChange == colChange) {
-                return direction;
-            }
+        var direction = ofOrNull(rowChange, colChange);
+        if (direction == null) {
+            throw new IllegalArgumentException();
         }
-        throw new IllegalArgumentException();
+        return direction;
+    }
+
+    /**
+     * Returns the {@link Direction} of two coordinate changes, without throwing for changes of no direction.
+     *
+     * @param rowChange the change in the row coordinate
+     * @param colChange the change in the column coordinate
+     * @return the direction that corresponds to the coordinate changes, or {@code null} if there is none
+     */
+    public static Direction ofOrNull(int rowChange, int colChange) {
+        if (rowChange < -1 || rowChange > 1 || colChange < -1 || colChange > 1) {
+            return null;
+        }
+        return BY_CHANGE[(rowChange + 1) * 3 + colChange + 1];
+    }
+
+    /**
+     * Returns the {@link Direction} of an ordinal, without cloning the array of {@link #values()}.
+     *
+     * @param ordinal the ordinal of the direction
+     * @return the direction
+     */
+    public static Direction byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the number of directions.
+     *
+     * @return the length of {@link #values()}
+     */
+    public static int count() {
+        return VALUES.length;
     }
 
     /**
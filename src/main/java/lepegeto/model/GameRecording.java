@@ -0,0 +1,128 @@
+package lepegeto.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The record of a game: the state it started from and the list of the moves played.
+ *
+ * <p>A recording is finished once the outcome of the game is known. The start state is stored encoded by
+ * {@link GameStateCodec}, so a recording costs a few bytes plus one {@code int} per move, and any ply of the
+ * game can be rebuilt with a {@link Replayer}.</p>
+ */
+public final class GameRecording {
+
+    private final byte[] start;
+    private final int[] moves;
+    private final boolean finished;
+    private final Player winner;
+
+    /**
+     * Creates a {@code GameRecording}.
+     *
+     * @param start    the state the game started from
+     * @param moves    the moves played, encoded as described in {@link Move}
+     * @param finished whether the game is over
+     * @param winner   the winner, {@code null} for an unfinished or drawn game
+     * @throws IllegalArgumentException if an unfinished game has a winner
+     */
+    public GameRecording(GameState start, int[] moves, boolean finished, Player winner) {
+        this(GameStateCodec.encode(start, false), moves.clone(), finished, winner);
+    }
+
+    GameRecording(byte[] start, int[] moves, boolean finished, Player winner) {
+        if (!finished && winner != null) {
+            throw new IllegalArgumentException("An unfinished game has no winner");
+        }
+        this.start = start;
+        this.moves = moves;
+        this.finished = finished;
+        this.winner = winner;
+    }
+
+    /**
+     * Returns the state the game started from.
+     *
+     * @return a new copy of the start state
+     */
+    public GameState getStart() {
+        try {
+            return GameStateCodec.decode(start);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    byte[] getEncodedStart() {
+        return start;
+    }
+
+    /**
+     * Returns the number of moves played.
+     *
+     * @return the number of plies of the game
+     */
+    public int length() {
+        return moves.length;
+    }
+
+    /**
+     * Returns a move of the game.
+     *
+     * @param ply the index of the move, {@code 0} for the first one
+     * @return the encoded move
+     */
+    public int getMove(int ply) {
+        return moves[ply];
+    }
+
+    /**
+     * Returns the moves of the game.
+     *
+     * @return a copy of the encoded moves
+     */
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Returns whether the game is over.
+     *
+     * @return whether the outcome of the game is recorded
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the winner, {@code null} for an unfinished or drawn game
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof GameRecording)) {
+            return false;
+        }
+        var other = (GameRecording) o;
+        return finished == other.finished && winner == other.winner
+                && Arrays.equals(start, other.start) && Arrays.equals(moves, other.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(start) + Arrays.hashCode(moves);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GameRecording{moves: %d, finished: %b, winner: %s}", moves.length, finished, winner);
+    }
+}
@@ -0,0 +1,146 @@
+package lepegeto.model;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the {@link GameRecording}s of an archive written by {@link GameRecordingWriter} one at a time, so an
+ * archive of any size can be processed in constant memory.
+ */
+public class GameRecordingReader implements Closeable {
+
+    private static final int MOVE_LIMIT = 1 << 13;
+
+    private final DataInputStream in;
+    private boolean magicRead;
+    private int[] moves = new int[64];
+
+    /**
+     * Creates a {@code GameRecordingReader} reading a file.
+     *
+     * @param path the path of the archive
+     * @throws IOException if the file cannot be opened
+     */
+    public GameRecordingReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    }
+
+    /**
+     * Creates a {@code GameRecordingReader} reading a stream, which is closed with the reader.
+     *
+     * @param is the stream to read
+     */
+    public GameRecordingReader(InputStream is) {
+        in = new DataInputStream(new BufferedInputStream(is));
+    }
+
+    /**
+     * Reads the next recording.
+     *
+     * @return the recording, or {@code null} at the end of the archive
+     * @throws IOException if the archive cannot be read or is corrupt
+     */
+    public GameRecording read() throws IOException {
+        if (!magicRead) {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            int magic = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedShort();
+            if (magic != GameRecordingWriter.MAGIC) {
+                throw new IOException("Not a game record");
+            }
+        }
+        magicRead = false;
+        int version = in.readUnsignedByte();
+        if (version != GameRecordingWriter.VERSION) {
+            throw new IOException(String.format("Unsupported game record version: %d", version));
+        }
+        var start = new byte[in.readUnsignedShort()];
+        in.readFully(start);
+        GameStateCodec.decode(start);
+
+        int length = 0;
+        boolean finished = false;
+        Player winner = null;
+        while (true) {
+            int high = in.read();
+            if (high < 0) {
+                break;
+            }
+            int value = high << 8 | in.readUnsignedByte();
+            if (value == GameRecordingWriter.END) {
+                int outcome = in.readUnsignedByte();
+                if (outcome != GameRecordingWriter.DRAW && outcome >= Player.values().length) {
+                    throw new IOException(String.format("Invalid outcome: %d", outcome));
+                }
+                finished = true;
+                winner = outcome == GameRecordingWriter.DRAW ? null : Player.values()[outcome];
+                break;
+            }
+            if (value == GameRecordingWriter.MAGIC >>> 16) {
+                if (in.readUnsignedShort() != (GameRecordingWriter.MAGIC & 0xffff)) {
+                    throw new IOException("Corrupt game record");
+                }
+                magicRead = true;
+                break;
+            }
+            if (value >= MOVE_LIMIT) {
+                throw new IOException(String.format("Invalid move: %d", value));
+            }
+            if (length == moves.length) {
+                moves = Arrays.copyOf(moves, length * 2);
+            }
+            moves[length++] = value;
+        }
+        return new GameRecording(start, Arrays.copyOf(moves, length), finished, winner);
+    }
+
+    /**
+     * Returns the remaining recordings as a lazy stream. Closing the stream closes the reader.
+     *
+     * @return the stream of the recordings
+     */
+    public Stream<GameRecording> stream() {
+        var spliterator = new Spliterators.AbstractSpliterator<GameRecording>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super GameRecording> action) {
+                try {
+                    var recording = read();
+                    if (recording == null) {
+                        return false;
+                    }
+                    action.accept(recording);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
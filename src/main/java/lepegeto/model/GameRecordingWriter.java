@@ -0,0 +1,175 @@
+package lepegeto.model;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends {@link GameRecording}s to an archive, either whole or move by move while the game is played.
+ *
+ * <p>An archive is a sequence of records. A record starts with a magic number, the format version and the
+ * length of the start state encoded by {@link GameStateCodec} followed by its bytes. Every move follows as a
+ * 16-bit value, and a finished game ends with the {@link #END} marker and a byte holding the ordinal of the
+ * winner, or {@link #DRAW}. A record without the marker is an unfinished game, so a game interrupted while
+ * being appended is read back up to its last move.</p>
+ */
+public class GameRecordingWriter implements Closeable {
+
+    /**
+     * The magic number at the start of every record. Its upper half is not a valid move, so a record that
+     * follows an unfinished one can be told apart from its moves.
+     */
+    static final int MAGIC = 0x4c504752;
+
+    static final int VERSION = 1;
+
+    /**
+     * The marker closing the moves of a finished game.
+     */
+    static final int END = 0xffff;
+
+    /**
+     * The outcome byte of a drawn game.
+     */
+    static final int DRAW = 0xff;
+
+    /**
+     * The bits of a move encoded by {@link Move}, the other bits of a valid move are clear.
+     */
+    private static final int MOVE_MASK = 0x1fff;
+
+    private final DataOutputStream out;
+    private boolean inGame;
+
+    /**
+     * Creates a {@code GameRecordingWriter} appending to a file, which is created if it does not exist.
+     *
+     * @param path the path of the archive
+     * @throws IOException if the file cannot be opened
+     */
+    public GameRecordingWriter(Path path) throws IOException {
+        this(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Creates a {@code GameRecordingWriter} writing to a stream, which is closed with the writer.
+     *
+     * @param os the stream to write to
+     */
+    public GameRecordingWriter(OutputStream os) {
+        out = new DataOutputStream(new BufferedOutputStream(os));
+    }
+
+    /**
+     * Starts the record of a game played move by move.
+     *
+     * @param start the state the game starts from
+     * @throws IOException           if the record cannot be written
+     * @throws IllegalStateException if the previous game is not finished
+     */
+    public void begin(GameState start) throws IOException {
+        if (inGame) {
+            throw new IllegalStateException("The previous game is not finished");
+        }
+        writeHeader(GameStateCodec.encode(start, false));
+        out.flush();
+        inGame = true;
+    }
+
+    /**
+     * Appends a move to the game started by {@link #begin} and flushes it to the archive.
+     *
+     * @param move the encoded move
+     * @throws IOException              if the move cannot be written
+     * @throws IllegalArgumentException if the move is not encoded as described in {@link Move}
+     * @throws IllegalStateException    if no game is started
+     */
+    public void append(int move) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game is started");
+        }
+        checkMove(move);
+        out.writeShort(move);
+        out.flush();
+    }
+
+    /**
+     * Finishes the game started by {@link #begin}.
+     *
+     * @param winner the winner, {@code null} for a draw
+     * @throws IOException           if the outcome cannot be written
+     * @throws IllegalStateException if no game is started
+     */
+    public void end(Player winner) throws IOException {
+        if (!inGame) {
+            throw new IllegalStateException("No game is started");
+        }
+        writeEnd(winner);
+        out.flush();
+        inGame = false;
+    }
+
+    /**
+     * Writes a whole recording. The record is not flushed, so many games can be written at the cost of one.
+     *
+     * @param recording the recording
+     * @throws IOException              if the record cannot be written
+     * @throws IllegalArgumentException if a move is not encoded as described in {@link Move}
+     * @throws IllegalStateException    if a game started by {@link #begin} is not finished
+     */
+    public void write(GameRecording recording) throws IOException {
+        if (inGame) {
+            throw new IllegalStateException("The previous game is not finished");
+        }
+        for (int ply = 0; ply < recording.length(); ++ply) {
+            checkMove(recording.getMove(ply));
+        }
+        writeHeader(recording.getEncodedStart());
+        for (int ply = 0; ply < recording.length(); ++ply) {
+            out.writeShort(recording.getMove(ply));
+        }
+        if (recording.isFinished()) {
+            writeEnd(recording.getWinner());
+        }
+    }
+
+    /**
+     * Rejects values that would be written as something else than a move, like {@link #END}.
+     */
+    private static void checkMove(int move) {
+        if ((move & ~MOVE_MASK) != 0) {
+            throw new IllegalArgumentException(String.format("Not an encoded move: %d", move));
+        }
+    }
+
+    private void writeHeader(byte[] start) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(start.length);
+        out.write(start);
+    }
+
+    private void writeEnd(Player winner) throws IOException {
+        out.writeShort(END);
+        out.writeByte(winner == null ? DRAW : winner.ordinal());
+    }
+
+    /**
+     * Flushes the records written so far.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
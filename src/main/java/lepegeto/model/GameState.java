@@ -1,19 +1,34 @@
 package lepegeto.model;
 
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.*;
 import javafx.geometry.Pos;
 import org.tinylog.Logger;
+import org.tinylog.TaggedLogger;
 
 import java.util.*;
 
 /**
  * Represents the model of the game.
+ *
+ * <p>The occupancy of the cells is kept in a {@link Board}, the position arrays are
+ * kept alongside it for the XML save format.</p>
+ *
+ * <p>Search and simulation code walks the game tree with {@link #makeMove} and {@link #unmakeMove}, which only
+ * update the board and a stack of the encoded moves. The position arrays are brought up to date with the
+ * board the next time they are read.</p>
+ *
+ * <p>Every step of a move is logged at debug level with the {@code model} tag, which is off by default,
+ * and messages are only formatted if their level is enabled.</p>
  */
 @XmlRootElement
 @XmlAccessorType(XmlAccessType.FIELD)
-@XmlType(propOrder = {"BOARD_SIZE", "currentPlayer", "redPositions", "bluePositions", "forbiddenPositions", "players", "numberOfTurns"})
+@XmlType(propOrder = {"BOARD_SIZE", "currentPlayer", "redPositions", "bluePositions", "forbiddenPositions", "players", "numberOfTurns", "selected", "ghosts"})
 public class GameState implements Cloneable {
 
+    private static final TaggedLogger LOG = Logger.tag("model");
+
     /**
      * The size of the board.
      */
@@ -56,6 +71,28 @@ public class GameState implements Cloneable {
     @XmlElement(name = "position")
     private ArrayList<Position> ghosts;
 
+    /**
+     * The bitboard mirroring the position arrays, answering the occupancy queries.
+     */
+    @XmlTransient
+    private Board board;
+
+    /**
+     * The moves made by {@link #makeMove} that can be taken back, the last one on top.
+     * Any other change of the position or of the player to move discards them, see {@link #discardUndo}.
+     */
+    @XmlTransient
+    private int[] undoStack = new int[16];
+
+    @XmlTransient
+    private int undoDepth;
+
+    /**
+     * Whether the position arrays are behind the board after {@link #makeMove} or {@link #unmakeMove}.
+     */
+    @XmlTransient
+    private boolean positionsStale;
+
     public HashMap<Player, String> getPlayers() {
         return players;
     }
@@ -86,6 +123,153 @@ public class GameState implements Cloneable {
         forbiddenPositions[3] = new Position(3, 3);
 
         players = new HashMap<Player, String>();
+        board = new Board();
+    }
+
+    /**
+     * Creates a {@code GameState} object from a decoded position, without any selection or moves to take back.
+     *
+     * @param board         the occupancy of the cells
+     * @param currentPlayer the player to move
+     * @param numberOfTurns the number of turns played
+     * @param players       the names of the players
+     */
+    GameState(Board board, Player currentPlayer, int numberOfTurns, HashMap<Player, String> players) {
+        selected = new ArrayList<Position>();
+        ghosts = new ArrayList<Position>();
+
+        bluePositions = toPositions(board.getBlue());
+        redPositions = toPositions(board.getRed());
+        forbiddenPositions = toPositions(board.getForbidden());
+
+        this.board = board.clone();
+        this.currentPlayer = currentPlayer;
+        this.numberOfTurns = numberOfTurns;
+        this.players = players;
+    }
+
+    private static Position[] toPositions(long cells) {
+        var positions = new Position[Long.bitCount(cells)];
+        for (int i = 0; cells != 0; ++i, cells &= cells - 1) {
+            int cell = Long.numberOfTrailingZeros(cells);
+            positions[i] = new Position(Board.row(cell), Board.col(cell));
+        }
+        return positions;
+    }
+
+    /**
+     * Rebuilds the {@link Board} from the position arrays read from XML.
+     *
+     * @param unmarshaller the unmarshaller
+     * @param parent       the parent object
+     */
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        board = Board.of(bluePositions, redPositions, forbiddenPositions);
+    }
+
+    /**
+     * Brings the position arrays up to date with the board before they are written to XML.
+     *
+     * @param marshaller the marshaller
+     */
+    private void beforeMarshal(Marshaller marshaller) {
+        syncPositions();
+    }
+
+    /**
+     * Makes a move of the current player and passes the turn, without validating it.
+     * The move can be taken back with {@link #unmakeMove}.
+     *
+     * @param move a legal move of the current player, encoded as described in {@link Move}
+     */
+    public void makeMove(int move) {
+        if (undoDepth == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoDepth * 2);
+        }
+        undoStack[undoDepth++] = move;
+        clearSelection();
+        board.apply(currentPlayer, move);
+        positionsStale = true;
+        passTurn();
+        ++numberOfTurns;
+    }
+
+    /**
+     * Takes back the last move made by {@link #makeMove}.
+     *
+     * @return the move taken back
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public int unmakeMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int move = undoStack[--undoDepth];
+        clearSelection();
+        passTurn();
+        --numberOfTurns;
+        board.apply(currentPlayer, move);
+        positionsStale = true;
+        return move;
+    }
+
+    /**
+     * Returns the number of moves that can be taken back with {@link #unmakeMove}.
+     *
+     * @return the depth of the undo stack
+     */
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    /**
+     * Forgets the moves that could be taken back, as they no longer lead back from the current position.
+     */
+    private void discardUndo() {
+        undoDepth = 0;
+    }
+
+    private void syncPositions() {
+        if (positionsStale) {
+            syncPositions(bluePositions, board.getBlue());
+            syncPositions(redPositions, board.getRed());
+            positionsStale = false;
+        }
+    }
+
+    /**
+     * Keeps the positions standing on one of {@code cells}, and replaces the others with the cells not covered yet.
+     */
+    private static void syncPositions(Position[] positions, long cells) {
+        long missing = cells;
+        for (var position : positions) {
+            missing &= ~Board.bit(Board.cell(position));
+        }
+        for (int i = 0; i < positions.length; ++i) {
+            if ((cells & Board.bit(Board.cell(positions[i]))) == 0) {
+                int cell = Long.numberOfTrailingZeros(missing);
+                missing &= missing - 1;
+                positions[i] = new Position(Board.row(cell), Board.col(cell));
+            }
+        }
+    }
+
+    /**
+     * Returns the 64-bit {@link Zobrist} key of the position, including the player to move.
+     *
+     * @return the key of the position
+     */
+    public long getKey() {
+        return board.getKey() ^ Zobrist.side(currentPlayer);
+    }
+
+    /**
+     * Returns a copy of the {@link Board} of the game.
+     *
+     * @return the board of the game
+     */
+    public Board getBoard() {
+        return board.clone();
     }
 
     private static Position[] deepClone(Position[] a) {
@@ -110,14 +294,10 @@ public class GameState implements Cloneable {
         Position ghost1 = ghosts.get(0);
         Position ghost2 = ghosts.get(1);
 
-        try {
-            Direction direction1 = Direction.of(ghost1.getRow() - selection1.getRow(), ghost1.getCol() - selection1.getCol());
-            Direction direction2 = Direction.of(ghost2.getRow() - selection2.getRow(), ghost2.getCol() - selection2.getCol());
+        Direction direction1 = Direction.ofOrNull(ghost1.getRow() - selection1.getRow(), ghost1.getCol() - selection1.getCol());
+        Direction direction2 = Direction.ofOrNull(ghost2.getRow() - selection2.getRow(), ghost2.getCol() - selection2.getCol());
 
-            return direction2.equals(direction1);
-        } catch (IllegalArgumentException exception) {
-            return false;
-        }
+        return direction1 != null && direction1 == direction2;
     }
 
     public Direction getSelectionDirection() {
@@ -128,9 +308,12 @@ public class GameState implements Cloneable {
     }
 
     public void moveSelected(Direction direction) {
+        discardUndo();
         for (var pos : selected) {
             Position newPosition = getPositionAt(pos);
+            int from = Board.cell(newPosition);
             move(direction, newPosition);
+            board.move(currentPlayer, from, Board.cell(newPosition));
         }
     }
 
@@ -139,76 +322,126 @@ public class GameState implements Cloneable {
         selected.clear();
     }
 
-    public boolean endTurn() throws IllegalArgumentException, IllegalStateException {
-
-        if (getGhosts().size() != 2 && getSelected().size() != 2) {
-            Logger.warn("Not enough moves");
-            throw new IllegalArgumentException();
+    /**
+     * Ends the turn, moving the selected figures to their targets, without throwing for invalid moves.
+     *
+     * @return {@link MoveResult#WIN} or {@link MoveResult#OK} if the move was made, depending on whether the
+     * moving player reached his goal row as decided by {@link Board#isHome}, otherwise the reason the move was rejected
+     */
+    public MoveResult tryEndTurn() {
+        if (ghosts.size() != 2 || selected.size() != 2) {
+            LOG.debug("Not enough moves");
+            return MoveResult.INCOMPLETE_MOVE;
+        }
+        if (!isValidSelection()) {
+            LOG.debug("Invalid move");
+            return MoveResult.DIRECTION_MISMATCH;
         }
 
-        if (isValidSelection()) {
-            moveSelected(getSelectionDirection());
-            clearSelection();
+        var mover = currentPlayer;
+        moveSelected(getSelectionDirection());
+        clearSelection();
 
-            nextPlayer();
-            ++numberOfTurns;
-            if (isCurrentPlayerWinner()) {
-                Logger.info("A player has won the game");
-                return true;
-            } else {
-                Logger.info("Next turn");
-                return false;
-            }
+        nextPlayer();
+        ++numberOfTurns;
+        if (board.isHome(mover)) {
+            LOG.info("A player has won the game");
+            return MoveResult.WIN;
         } else {
-            Logger.warn("Invalid move");
-            throw new IllegalStateException();
+            LOG.debug("Next turn");
+            return MoveResult.OK;
         }
     }
 
+    public boolean endTurn() throws IllegalArgumentException, IllegalStateException {
+        var result = tryEndTurn();
+        switch (result) {
+            case INCOMPLETE_MOVE -> throw new IllegalArgumentException();
+            case DIRECTION_MISMATCH -> throw new IllegalStateException();
+            default -> {
+                return result == MoveResult.WIN;
+            }
+        }
+    }
+
+    /**
+     * Adds a target of the selected figures, without throwing for invalid targets.
+     *
+     * @param position the target
+     * @return {@link MoveResult#OK} if the target was added, otherwise the reason it was rejected
+     */
+    public MoveResult tryAddGhost(Position position) {
+        if (Board.cell(position) < 0 || !isFree(position)) {
+            LOG.debug("Invalid move target: invalid target position");
+            return MoveResult.TARGET_NOT_FREE;
+        }
+        if (ghosts.size() >= 2) {
+            LOG.debug("Invalid move target: maximum move targets");
+            return MoveResult.TOO_MANY_TARGETS;
+        }
+        if (ghosts.contains(position)) {
+            LOG.debug("Invalid move target: already moved");
+            return MoveResult.ALREADY_TARGETED;
+        }
+        ghosts.add(position);
+        LOG.debug("Valid move target");
+        return MoveResult.OK;
+    }
+
     public void addGhost(Position position) {
-        if (isFree(position)) {
-            if (getGhosts().size() < 2) {
-                if (!ghosts.contains(position)) {
-                    ghosts.add(position);
-                    Logger.info("Valid move target");
-                } else {
-                    Logger.warn("Invalid move target: already moved");
-                    throw new IllegalArgumentException();
-                }
-            } else {
-                Logger.warn("Invalid move target: maximum move targets");
-                throw new IllegalStateException();
+        switch (tryAddGhost(position)) {
+            case ALREADY_TARGETED -> throw new IllegalArgumentException();
+            case TOO_MANY_TARGETS -> throw new IllegalStateException();
+            case TARGET_NOT_FREE -> throw new IllegalCallerException();
+            default -> {
             }
-        } else {
-            Logger.warn("Invalid move target: invalid target position");
-            throw new IllegalCallerException();
         }
     }
 
+    /**
+     * Selects a figure of the current player, without throwing for invalid selections.
+     *
+     * @param position the position of the figure
+     * @return {@link MoveResult#OK} if the figure was selected, otherwise the reason it was rejected
+     */
+    public MoveResult trySelect(Position position) {
+        if (!isOccupiedByCurrentPlayer(position)) {
+            LOG.debug("Invalid selection: not current player figure");
+            return MoveResult.NOT_OWN_FIGURE;
+        }
+        if (selected.size() >= 2) {
+            LOG.debug("Invalid selection: cannot select more figure");
+            return MoveResult.TOO_MANY_SELECTED;
+        }
+        if (selected.contains(position)) {
+            LOG.debug("Invalid selection: figure already selected");
+            return MoveResult.ALREADY_SELECTED;
+        }
+        selected.add(position);
+        LOG.debug("Valid selection");
+        return MoveResult.OK;
+    }
+
     public void addSelection(Position position) {
-        if (isOccupiedByCurrentPlayer(position)) {
-            if (getSelected().size() < 2) {
-                if (!getSelected().contains(position)) {
-                    getSelected().add(position);
-                    Logger.info("Valid selection");
-                } else {
-                    Logger.warn("Invalid selection: figure already selected");
-                    throw new IllegalArgumentException();
-                }
-            } else {
-                Logger.warn("Invalid selection: cannot select more figure");
-                throw new IllegalStateException();
+        switch (trySelect(position)) {
+            case ALREADY_SELECTED -> throw new IllegalArgumentException();
+            case TOO_MANY_SELECTED -> throw new IllegalStateException();
+            case NOT_OWN_FIGURE -> throw new IllegalCallerException();
+            default -> {
             }
-        } else {
-            Logger.warn("Invalid selection: not current player figure");
-            throw new IllegalCallerException();
         }
     }
 
     /**
      * Sets the current player to the not current one.
+     * The moves made by {@link #makeMove} can no longer be taken back.
      */
     public void nextPlayer() {
+        discardUndo();
+        passTurn();
+    }
+
+    private void passTurn() {
         currentPlayer = currentPlayer.other();
     }
 
@@ -218,6 +451,7 @@ public class GameState implements Cloneable {
      * @return An array of positions.
      */
     public Position[] getCurrentPlayerPositions() {
+        syncPositions();
         if (currentPlayer.equals(Player.RED)) {
             return redPositions;
         } else {
@@ -235,18 +469,7 @@ public class GameState implements Cloneable {
      * @return whether the current player is the winner, based on the positions of his figures.
      */
     public boolean isCurrentPlayerWinner() {
-        int destinationRowNumber = -1;
-        switch (currentPlayer) {
-            case BLUE -> destinationRowNumber = 6;
-            case RED -> destinationRowNumber = 0;
-        }
-
-        for (var figure : getCurrentPlayerPositions()) {
-            if (figure.getRow() != destinationRowNumber) {
-                return false;
-            }
-        }
-        return true;
+        return board.isHome(currentPlayer);
     }
 
     /**
@@ -256,13 +479,8 @@ public class GameState implements Cloneable {
      * @return whether {@code position} is owned by the current player.
      */
     public boolean isOccupiedByCurrentPlayer(Position position) {
-        for (var figure : getCurrentPlayerPositions()) {
-            if (position.equals(figure)) {
-                return true;
-            }
-        }
-
-        return false;
+        int cell = Board.cell(position);
+        return cell >= 0 && board.isOccupiedBy(currentPlayer, cell);
     }
 
     /**
@@ -273,10 +491,11 @@ public class GameState implements Cloneable {
      * @throws IllegalArgumentException if position isnt owned by the current player
      */
     public Position getPositionAt(Position position) {
-
-        for (var figure : getCurrentPlayerPositions()) {
-            if (position.equals(figure)) {
-                return figure;
+        if (isOccupiedByCurrentPlayer(position)) {
+            for (var figure : getCurrentPlayerPositions()) {
+                if (position.equals(figure)) {
+                    return figure;
+                }
             }
         }
 
@@ -290,12 +509,8 @@ public class GameState implements Cloneable {
      * @return whether {@code position} is forbidden.
      */
     public boolean isForbidden(Position position) {
-        for (var pos : forbiddenPositions) {
-            if (position.equals(pos)) {
-                return true;
-            }
-        }
-        return false;
+        int cell = Board.cell(position);
+        return cell >= 0 && board.isForbidden(cell);
     }
 
     /**
@@ -305,12 +520,8 @@ public class GameState implements Cloneable {
      * @return whether {@code position} is owned by Red
      */
     public boolean isRed(Position position) {
-        for (var pos : redPositions) {
-            if (position.equals(pos)) {
-                return true;
-            }
-        }
-        return false;
+        int cell = Board.cell(position);
+        return cell >= 0 && board.isRed(cell);
     }
 
     /**
@@ -320,7 +531,8 @@ public class GameState implements Cloneable {
      * @return whether {@code position} is owned by no one
      */
     public boolean isFree(Position position) {
-        return !isBlue(position) && !isRed(position) && !isForbidden(position);
+        int cell = Board.cell(position);
+        return cell < 0 || board.isFree(cell);
     }
 
     /**
@@ -339,12 +551,8 @@ public class GameState implements Cloneable {
      * @return whether {@code position} is owned by Blue
      */
     public boolean isBlue(Position position) {
-        for (var pos : bluePositions) {
-            if (position.equals(pos)) {
-                return true;
-            }
-        }
-        return false;
+        int cell = Board.cell(position);
+        return cell >= 0 && board.isBlue(cell);
     }
 
     /**
@@ -354,41 +562,36 @@ public class GameState implements Cloneable {
      * @return The owner of the parameter {@code position}
      */
     public Owner owner(Position position) {
-        if (isBlue(position)) {
-            return Owner.BLUE;
-        } else if (isRed(position)) {
-            return Owner.RED;
-        } else if (isForbidden(position)) {
-            return Owner.FORBIDDEN;
-        } else {
-            return Owner.NONE;
-        }
+        int cell = Board.cell(position);
+        return cell < 0 ? Owner.NONE : board.owner(cell);
     }
 
-    private boolean isOccupied(Position position) {
-        for (var pos : redPositions) {
-            if (position.equals(pos)) {
-                return true;
-            }
-        }
-
-        for (var pos : bluePositions) {
-            if (position.equals(pos)) {
-                return true;
-            }
-        }
+    /**
+     * Returns the {@link Owner} of a {@link Cell}.
+     *
+     * @param cell The cell
+     * @return The owner of the parameter {@code cell}
+     */
+    public Owner owner(Cell cell) {
+        return board.owner(cell.getIndex());
+    }
 
-        return false;
+    private boolean isOccupied(Position position) {
+        int cell = Board.cell(position);
+        return cell >= 0 && (board.occupied() & Board.bit(cell)) != 0;
     }
 
     /**
      * Moves a {@link Position} in a {@link Direction}.
+     * Only the position object is changed, the {@link Board} of the game is updated by {@link #moveSelected}.
      *
      * @param direction the direction of the move
      * @param position  the initial position of the move.
      */
     public void move(Direction direction, Position position) {
-        Logger.info(String.format("%s is moved in direction %s", position.toString(), direction.toString()));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} is moved in direction {}", position, direction);
+        }
         switch (direction) {
             case WEST -> moveWest(position);
             case EAST -> moveEast(position);
@@ -445,6 +648,17 @@ public class GameState implements Cloneable {
         copy.bluePositions = deepClone(bluePositions);
         copy.forbiddenPositions = deepClone(forbiddenPositions);
         copy.redPositions = deepClone(redPositions);
+        copy.board = board.clone();
+        copy.undoStack = undoStack.clone();
+        copy.selected = new ArrayList<>(selected.size());
+        for (var position : selected) {
+            copy.selected.add(position.clone());
+        }
+        copy.ghosts = new ArrayList<>(ghosts.size());
+        for (var position : ghosts) {
+            copy.ghosts.add(position.clone());
+        }
+        copy.players = players == null ? null : new HashMap<>(players);
 
         return copy;
     }
@@ -459,14 +673,12 @@ public class GameState implements Cloneable {
             return false;
         }
 
-        return Arrays.equals(redPositions, ((GameState) o).redPositions)
-                && Arrays.equals(bluePositions, ((GameState) o).bluePositions)
-                && Arrays.equals(forbiddenPositions, ((GameState) o).forbiddenPositions);
+        return board.equals(((GameState) o).board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(redPositions), Arrays.hashCode(bluePositions), Arrays.hashCode(forbiddenPositions));
+        return Long.hashCode(board.getKey());
     }
 
     @Override
@@ -476,6 +688,8 @@ public class GameState implements Cloneable {
         var redSj = new StringJoiner(", ", "red: [", "]");
         var forbiddenSj = new StringJoiner(", ", "forbidden: [", "]");
 
+        syncPositions();
+
         for (var position : bluePositions) {
             blueSj.add(position.toString());
         }
@@ -0,0 +1,214 @@
+package lepegeto.model;
+
+import jakarta.xml.bind.JAXBException;
+import util.jaxb.JAXBHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding of a {@link GameState}.
+ *
+ * <p>An encoded state starts with a magic number, the format version and a flag byte, followed by the blue,
+ * red and forbidden cells as {@link Board} masks, the player to move, the number of turns and the names of the
+ * players. If the {@link #FLAG_CRC} flag is set, a CRC-32 of all the preceding bytes closes the record. The
+ * selection of an unfinished move is not saved. A state without player names takes {@value #MIN_SIZE} bytes,
+ * {@value #CRC_SIZE} more with the CRC.</p>
+ *
+ * <p>{@link #save} and {@link #load} pick the binary format for files ending in {@value #EXTENSION} and
+ * XML for any other file.</p>
+ */
+public final class GameStateCodec {
+
+    /**
+     * The extension of binary save files.
+     */
+    public static final String EXTENSION = ".lgs";
+
+    /**
+     * The flag of a record closed by a CRC-32.
+     */
+    public static final int FLAG_CRC = 1;
+
+    /**
+     * The size of a record without player names and CRC.
+     */
+    public static final int MIN_SIZE = 24;
+
+    /**
+     * The size of the CRC.
+     */
+    public static final int CRC_SIZE = 4;
+
+    private static final int MAGIC = 0x4c504753;
+    private static final int VERSION = 1;
+
+    private GameStateCodec() {
+    }
+
+    /**
+     * Encodes a state.
+     *
+     * @param state the state
+     * @param crc   whether to close the record with a CRC-32
+     * @return the encoded state
+     */
+    public static byte[] encode(GameState state, boolean crc) {
+        var bytes = new ByteArrayOutputStream(64);
+        try (var out = new DataOutputStream(bytes)) {
+            var board = state.getBoard();
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(crc ? FLAG_CRC : 0);
+            out.writeInt((int) board.getBlue());
+            out.writeInt((int) board.getRed());
+            out.writeInt((int) board.getForbidden());
+            out.writeByte(state.getCurrentPlayer().ordinal());
+            out.writeInt(state.getNumberOfTurns());
+            var players = state.getPlayers();
+            int count = 0;
+            if (players != null) {
+                for (var player : Player.values()) {
+                    count += players.get(player) != null ? 1 : 0;
+                }
+            }
+            out.writeByte(count);
+            for (var player : Player.values()) {
+                String name = players == null ? null : players.get(player);
+                if (name != null) {
+                    var utf8 = name.getBytes(StandardCharsets.UTF_8);
+                    if (utf8.length > 0xffff) {
+                        throw new IllegalArgumentException(String.format("Player name too long: %d bytes", utf8.length));
+                    }
+                    out.writeByte(player.ordinal());
+                    out.writeShort(utf8.length);
+                    out.write(utf8);
+                }
+            }
+            if (crc) {
+                var checksum = new CRC32();
+                checksum.update(bytes.toByteArray());
+                out.writeInt((int) checksum.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a state.
+     *
+     * @param bytes the encoded state
+     * @return the state
+     * @throws IOException if the bytes are not a valid record
+     */
+    public static GameState decode(byte[] bytes) throws IOException {
+        var buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a saved game");
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException(String.format("Unsupported save format version: %d", version));
+            }
+            int flags = buffer.get();
+            if ((flags & FLAG_CRC) != 0) {
+                var checksum = new CRC32();
+                checksum.update(bytes, 0, bytes.length - CRC_SIZE);
+                if (ByteBuffer.wrap(bytes, bytes.length - CRC_SIZE, CRC_SIZE).getInt() != (int) checksum.getValue()) {
+                    throw new IOException("Saved game is corrupt: CRC mismatch");
+                }
+            }
+
+            long blue = buffer.getInt() & 0xffffffffL;
+            long red = buffer.getInt() & 0xffffffffL;
+            long forbidden = buffer.getInt() & 0xffffffffL;
+            if (((blue | red | forbidden) & ~Board.ALL) != 0 || (blue & red) != 0 || ((blue | red) & forbidden) != 0) {
+                throw new IOException("Saved game is corrupt: invalid board");
+            }
+            // The move buffers of the engines are sized for at most FIGURES figures a side.
+            if (Long.bitCount(blue) > Board.FIGURES || Long.bitCount(red) > Board.FIGURES) {
+                throw new IOException("Saved game is corrupt: too many figures");
+            }
+            if (forbidden != Board.FORBIDDEN) {
+                throw new IOException("Saved game is corrupt: invalid forbidden cells");
+            }
+            int current = buffer.get();
+            if (current < 0 || current >= Player.values().length) {
+                throw new IOException("Saved game is corrupt: invalid player");
+            }
+            int numberOfTurns = buffer.getInt();
+            int count = buffer.get();
+            var players = new HashMap<Player, String>();
+            for (int i = 0; i < count; ++i) {
+                int player = buffer.get();
+                if (player < 0 || player >= Player.values().length) {
+                    throw new IOException("Saved game is corrupt: invalid player");
+                }
+                var name = new byte[buffer.getShort() & 0xffff];
+                buffer.get(name);
+                players.put(Player.values()[player], new String(name, StandardCharsets.UTF_8));
+            }
+            if (buffer.remaining() != ((flags & FLAG_CRC) != 0 ? CRC_SIZE : 0)) {
+                throw new IOException("Saved game is corrupt: unexpected length");
+            }
+            return new GameState(new Board(blue, red, forbidden), Player.values()[current], numberOfTurns, players);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Saved game is truncated", e);
+        }
+    }
+
+    /**
+     * Returns whether a file is saved in the binary format.
+     *
+     * @param path the path of the file
+     * @return whether the name of the file ends in {@value #EXTENSION}
+     */
+    public static boolean isBinary(Path path) {
+        var name = path.getFileName();
+        return name != null && name.toString().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Saves a state, in the binary format with a CRC if the file name ends in {@value #EXTENSION} and as XML
+     * otherwise.
+     *
+     * @param state the state
+     * @param path  the path of the file
+     * @throws IOException   if the file cannot be written
+     * @throws JAXBException if the state cannot be written as XML
+     */
+    public static void save(GameState state, Path path) throws IOException, JAXBException {
+        if (isBinary(path)) {
+            Files.write(path, encode(state, true));
+        } else {
+            JAXBHelper.toXML(state, path);
+        }
+    }
+
+    /**
+     * Loads a state saved by {@link #save}.
+     *
+     * @param path the path of the file
+     * @return the state
+     * @throws IOException   if the file cannot be read or is not a valid binary save
+     * @throws JAXBException if the XML save cannot be read
+     */
+    public static GameState load(Path path) throws IOException, JAXBException {
+        if (isBinary(path)) {
+            return decode(Files.readAllBytes(path));
+        }
+        return JAXBHelper.fromXML(GameState.class, path);
+    }
+}
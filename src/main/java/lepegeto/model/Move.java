@@ -0,0 +1,135 @@
+package lepegeto.model;
+
+/**
+ * Helper methods for moves encoded as primitive {@code int}s.
+ *
+ * <p>A move steps two figures of the same player in the same {@link Direction}.
+ * Bits 0-4 hold the cell of the first figure, bits 5-9 the cell of the second figure
+ * and bits 10-12 the ordinal of the direction. The cells are the indexes used by {@link Board}.</p>
+ */
+public final class Move {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The change of the cell index when stepping in each direction, indexed by ordinal.
+     */
+    private static final int[] DELTAS = new int[DIRECTIONS.length];
+
+    static {
+        for (var direction : DIRECTIONS) {
+            DELTAS[direction.ordinal()] = direction.getRowChange() * Board.SIZE + direction.getColChange();
+        }
+    }
+
+    private Move() {
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param first     the cell of the first figure
+     * @param second    the cell of the second figure
+     * @param direction the direction of the move
+     * @return the encoded move
+     */
+    public static int of(int first, int second, Direction direction) {
+        return of(first, second, direction.ordinal());
+    }
+
+    /**
+     * Encodes a move.
+     *
+     * @param first     the cell of the first figure
+     * @param second    the cell of the second figure
+     * @param direction the ordinal of the direction of the move
+     * @return the encoded move
+     */
+    public static int of(int first, int second, int direction) {
+        return first | (second << 5) | (direction << 10);
+    }
+
+    /**
+     * Returns the cell of the first figure of a move.
+     *
+     * @param move the encoded move
+     * @return the cell of the first figure
+     */
+    public static int first(int move) {
+        return move & 0x1f;
+    }
+
+    /**
+     * Returns the cell of the second figure of a move.
+     *
+     * @param move the encoded move
+     * @return the cell of the second figure
+     */
+    public static int second(int move) {
+        return (move >>> 5) & 0x1f;
+    }
+
+    /**
+     * Returns the ordinal of the direction of a move.
+     *
+     * @param move the encoded move
+     * @return the ordinal of the direction
+     */
+    public static int directionIndex(int move) {
+        return (move >>> 10) & 0x7;
+    }
+
+    /**
+     * Returns the direction of a move.
+     *
+     * @param move the encoded move
+     * @return the direction
+     */
+    public static Direction direction(int move) {
+        return DIRECTIONS[directionIndex(move)];
+    }
+
+    /**
+     * Returns the change of the cell index when stepping in a direction.
+     *
+     * @param direction the ordinal of the direction
+     * @return the difference of the target and the source cell index
+     */
+    public static int delta(int direction) {
+        return DELTAS[direction];
+    }
+
+    /**
+     * Returns the mask of the cells the figures of a move stand on.
+     *
+     * @param move the encoded move
+     * @return the mask of the source cells
+     */
+    public static long fromMask(int move) {
+        return Board.bit(first(move)) | Board.bit(second(move));
+    }
+
+    /**
+     * Returns the mask of the cells the figures of a move step to.
+     *
+     * @param move the encoded move
+     * @return the mask of the target cells
+     */
+    public static long toMask(int move) {
+        int delta = DELTAS[directionIndex(move)];
+        return Board.bit(first(move) + delta) | Board.bit(second(move) + delta);
+    }
+
+    /**
+     * Returns the String representation of a move.
+     *
+     * @param move the encoded move
+     * @return the figures and the direction of the move
+     */
+    public static String toString(int move) {
+        return String.format("(%d,%d)+(%d,%d) %s",
+                Board.row(first(move)), Board.col(first(move)),
+                Board.row(second(move)), Board.col(second(move)),
+                direction(move));
+    }
+}
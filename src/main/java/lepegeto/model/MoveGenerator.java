@@ -0,0 +1,143 @@
+package lepegeto.model;
+
+/**
+ * Lists the legal moves of a player on a {@link Board}.
+ *
+ * <p>A move is legal if it steps two different figures of the player in the same
+ * {@link Direction}, and both target cells are on the board and free.
+ * Since stepping the same two figures in the same direction gives the same position
+ * regardless of their order, every such pair is listed once, with the lower cell first.</p>
+ *
+ * <p>For each direction the figures able to step are found with a single shift and mask
+ * over the free cells, so generating the moves does not allocate.</p>
+ */
+public final class MoveGenerator {
+
+    /**
+     * The upper bound of the number of legal moves: 10 pairs of figures in 8 directions.
+     */
+    public static final int MAX_MOVES = 80;
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    /**
+     * For each direction, the mask of cells from which a step stays on the board.
+     */
+    private static final long[] SOURCES = new long[DIRECTIONS];
+
+    static {
+        for (var direction : Direction.values()) {
+            long mask = 0;
+            for (int cell = 0; cell < Board.CELLS; ++cell) {
+                if (Board.isOnBoard(Board.row(cell) + direction.getRowChange(), Board.col(cell) + direction.getColChange())) {
+                    mask |= Board.bit(cell);
+                }
+            }
+            SOURCES[direction.ordinal()] = mask;
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Returns the figures of a player that can step in a direction.
+     *
+     * @param own       the cells of the player
+     * @param free      the free cells
+     * @param direction the ordinal of the direction
+     * @return the mask of the figures whose target cell is free
+     */
+    public static long movable(long own, long free, int direction) {
+        int delta = Move.delta(direction);
+        long targets = delta > 0 ? free >>> delta : free << -delta;
+        return own & SOURCES[direction] & targets;
+    }
+
+    /**
+     * Writes the legal moves of a player into {@code moves}.
+     *
+     * @param board  the board
+     * @param player the player to move
+     * @param moves  the buffer of the moves, at least {@link #MAX_MOVES} long
+     * @return the number of moves written
+     */
+    public static int generate(Board board, Player player, int[] moves) {
+        return generate(board.pieces(player), board.free(), moves, 0);
+    }
+
+    /**
+     * Writes the legal moves of a player into {@code moves}, starting at {@code offset}.
+     *
+     * @param own    the cells of the player
+     * @param free   the free cells
+     * @param moves  the buffer of the moves
+     * @param offset the index of the first move written
+     * @return the number of moves written
+     */
+    public static int generate(long own, long free, int[] moves, int offset) {
+        int count = offset;
+        for (int direction = 0; direction < DIRECTIONS; ++direction) {
+            long movable = movable(own, free, direction);
+            while (movable != 0) {
+                int first = Long.numberOfTrailingZeros(movable);
+                movable &= movable - 1;
+                for (long rest = movable; rest != 0; rest &= rest - 1) {
+                    moves[count++] = Move.of(first, Long.numberOfTrailingZeros(rest), direction);
+                }
+            }
+        }
+        return count - offset;
+    }
+
+    /**
+     * Returns the number of legal moves of a player without listing them.
+     *
+     * @param own  the cells of the player
+     * @param free the free cells
+     * @return the number of legal moves
+     */
+    public static int count(long own, long free) {
+        int count = 0;
+        for (int direction = 0; direction < DIRECTIONS; ++direction) {
+            int n = Long.bitCount(movable(own, free, direction));
+            count += n * (n - 1) / 2;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether a player has any legal move.
+     *
+     * @param own  the cells of the player
+     * @param free the free cells
+     * @return whether at least two figures can step in the same direction
+     */
+    public static boolean hasMove(long own, long free) {
+        for (int direction = 0; direction < DIRECTIONS; ++direction) {
+            if (Long.bitCount(movable(own, free, direction)) >= 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a move is legal for a player.
+     *
+     * @param board  the board
+     * @param player the player to move
+     * @param move   the encoded move
+     * @return whether the move is legal
+     */
+    public static boolean isLegal(Board board, Player player, int move) {
+        int first = Move.first(move);
+        int second = Move.second(move);
+        if (first == second || first >= Board.CELLS || second >= Board.CELLS) {
+            return false;
+        }
+        long movable = movable(board.pieces(player), board.free(), Move.directionIndex(move));
+        long pair = Board.bit(first) | Board.bit(second);
+        return (movable & pair) == pair;
+    }
+}
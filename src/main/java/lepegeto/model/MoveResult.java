@@ -0,0 +1,56 @@
+package lepegeto.model;
+
+/**
+ * Enum representing the outcome of a step of entering a move on a {@link GameState}.
+ */
+public enum MoveResult {
+    /**
+     * The step was accepted.
+     */
+    OK,
+    /**
+     * The move was made and the game has been won.
+     */
+    WIN,
+    /**
+     * The selected cell is not a figure of the current player.
+     */
+    NOT_OWN_FIGURE,
+    /**
+     * The figure is already selected.
+     */
+    ALREADY_SELECTED,
+    /**
+     * Two figures are already selected.
+     */
+    TOO_MANY_SELECTED,
+    /**
+     * The target cell is off the board or not free.
+     */
+    TARGET_NOT_FREE,
+    /**
+     * The cell is already a target.
+     */
+    ALREADY_TARGETED,
+    /**
+     * Two targets are already chosen.
+     */
+    TOO_MANY_TARGETS,
+    /**
+     * The turn was ended before choosing two figures and two targets.
+     */
+    INCOMPLETE_MOVE,
+    /**
+     * The two figures do not step in the same direction to their targets.
+     */
+    DIRECTION_MISMATCH;
+
+    /**
+     * Returns whether the step was accepted.
+     *
+     * @return whether the result is {@link #OK} or {@link #WIN}
+     */
+    public boolean isSuccess() {
+        return this == OK || this == WIN;
+    }
+}
@@ -0,0 +1,118 @@
+package lepegeto.model;
+
+import java.util.HashMap;
+
+/**
+ * Rebuilds any ply of a {@link GameRecording}.
+ *
+ * <p>The board is saved as a keyframe every {@code interval} plies when the replayer is created, so reaching a
+ * ply takes copying the keyframe before it and applying at most {@code interval - 1} moves.
+ * A keyframe is three {@code long}s, so the default interval of {@value #DEFAULT_INTERVAL} keeps the
+ * keyframes of a game of a thousand plies under two kilobytes.</p>
+ */
+public class Replayer {
+
+    /**
+     * The default number of plies between keyframes.
+     */
+    public static final int DEFAULT_INTERVAL = 16;
+
+    private final GameRecording recording;
+    private final GameState start;
+    private final int interval;
+    private final Board[] keyframes;
+
+    /**
+     * Creates a {@code Replayer} with the default keyframe interval.
+     *
+     * @param recording the recording of the game
+     * @throws IllegalArgumentException if a move of the recording is illegal
+     */
+    public Replayer(GameRecording recording) {
+        this(recording, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a {@code Replayer}, checking every move of the recording.
+     *
+     * @param recording the recording of the game
+     * @param interval  the number of plies between keyframes
+     * @throws IllegalArgumentException if a move of the recording is illegal or the interval is not positive
+     */
+    public Replayer(GameRecording recording, int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid keyframe interval: %d", interval));
+        }
+        this.recording = recording;
+        this.start = recording.getStart();
+        this.interval = interval;
+        this.keyframes = new Board[recording.length() / interval + 1];
+
+        var board = start.getBoard();
+        var player = start.getCurrentPlayer();
+        for (int ply = 0; ply < recording.length(); ++ply) {
+            if (ply % interval == 0) {
+                keyframes[ply / interval] = board.clone();
+            }
+            int move = recording.getMove(ply);
+            if (!MoveGenerator.isLegal(board, player, move)) {
+                throw new IllegalArgumentException(String.format("Illegal move at ply %d: %s", ply, Move.toString(move)));
+            }
+            board.apply(player, move);
+            player = player.other();
+        }
+        if (recording.length() % interval == 0) {
+            keyframes[recording.length() / interval] = board;
+        }
+    }
+
+    /**
+     * Returns the number of plies of the game.
+     *
+     * @return the number of moves of the recording
+     */
+    public int length() {
+        return recording.length();
+    }
+
+    /**
+     * Returns the board after a number of plies.
+     *
+     * @param ply the number of moves played, from {@code 0} to {@link #length()}
+     * @return a new board
+     * @throws IndexOutOfBoundsException if there is no such ply
+     */
+    public Board boardAt(int ply) {
+        if (ply < 0 || ply > recording.length()) {
+            throw new IndexOutOfBoundsException(String.format("Invalid ply: %d", ply));
+        }
+        int keyframe = ply / interval;
+        var board = keyframes[keyframe].clone();
+        for (int i = keyframe * interval; i < ply; ++i) {
+            board.apply(playerAt(i), recording.getMove(i));
+        }
+        return board;
+    }
+
+    /**
+     * Returns the player to move after a number of plies.
+     *
+     * @param ply the number of moves played
+     * @return the player to move
+     */
+    public Player playerAt(int ply) {
+        return ply % 2 == 0 ? start.getCurrentPlayer() : start.getCurrentPlayer().other();
+    }
+
+    /**
+     * Returns the state of the game after a number of plies, without moves to take back.
+     *
+     * @param ply the number of moves played, from {@code 0} to {@link #length()}
+     * @return a new state
+     * @throws IndexOutOfBoundsException if there is no such ply
+     */
+    public GameState stateAt(int ply) {
+        var players = start.getPlayers() == null ? null : new HashMap<>(start.getPlayers());
+        return new GameState(boardAt(ply), playerAt(ply), start.getNumberOfTurns() + ply, players);
+    }
+}
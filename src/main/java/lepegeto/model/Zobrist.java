@@ -0,0 +1,73 @@
+package lepegeto.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for 64-bit Zobrist hashing of positions.
+ *
+ * <p>The key of a position is the exclusive or of the keys of every figure on its cell,
+ * and of {@link #side} if Red is to move. Moving a figure changes the key by the keys of
+ * its source and target cells only, so the key can be kept up to date incrementally.</p>
+ */
+public final class Zobrist {
+
+    /**
+     * The keys of the figures, indexed by player ordinal and cell.
+     */
+    private static final long[][] PIECES = new long[Player.values().length][Board.CELLS];
+
+    /**
+     * The key of Red being the player to move.
+     */
+    private static final long RED_TO_MOVE;
+
+    static {
+        var random = new SplittableRandom(0x5eed_1e9e_9e70L);
+        for (var keys : PIECES) {
+            for (int cell = 0; cell < keys.length; ++cell) {
+                keys[cell] = random.nextLong();
+            }
+        }
+        RED_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a figure.
+     *
+     * @param player the owner of the figure
+     * @param cell   the cell of the figure
+     * @return the key of the figure on the cell
+     */
+    public static long piece(Player player, int cell) {
+        return PIECES[player.ordinal()][cell];
+    }
+
+    /**
+     * Returns the key of the player to move.
+     *
+     * @param player the player to move
+     * @return the key to be combined with the key of the figures
+     */
+    public static long side(Player player) {
+        return player == Player.RED ? RED_TO_MOVE : 0;
+    }
+
+    /**
+     * Returns the key of every figure in a mask.
+     *
+     * @param player the owner of the figures
+     * @param pieces the cells of the figures
+     * @return the combined key of the figures
+     */
+    public static long pieces(Player player, long pieces) {
+        long[] keys = PIECES[player.ordinal()];
+        long key = 0;
+        for (long rest = pieces; rest != 0; rest &= rest - 1) {
+            key ^= keys[Long.numberOfTrailingZeros(rest)];
+        }
+        return key;
+    }
+}
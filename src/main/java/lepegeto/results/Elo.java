@@ -0,0 +1,103 @@
+package lepegeto.results;
+
+import java.util.Map;
+
+/**
+ * The Elo rating system, rating the players from the outcomes of their games.
+ *
+ * <p>Both players of a game move by the same amount in opposite directions: {@code k} times the difference
+ * between the score of the first player, {@code 1} for a win, {@code 1/2} for a draw and {@code 0} for a loss,
+ * and the score expected from the difference of their ratings. Games without two different players are not
+ * rated.</p>
+ */
+public class Elo {
+
+    /**
+     * The rating of a new player.
+     */
+    public static final double INITIAL_RATING = 1500;
+
+    /**
+     * The default maximum change of a rating in one game.
+     */
+    public static final double DEFAULT_K = 32;
+
+    private final double k;
+
+    /**
+     * Creates an {@code Elo} with the default maximum change.
+     */
+    public Elo() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates an {@code Elo}.
+     *
+     * @param k the maximum change of a rating in one game
+     */
+    public Elo(double k) {
+        this.k = k;
+    }
+
+    /**
+     * Returns the score a player is expected to make against another.
+     *
+     * @param rating         the rating of the player
+     * @param opponentRating the rating of the opponent
+     * @return the expected score, between {@code 0} and {@code 1}
+     */
+    public static double expectedScore(double rating, double opponentRating) {
+        return 1 / (1 + Math.pow(10, (opponentRating - rating) / 400));
+    }
+
+    /**
+     * Tells whether a result changes the ratings.
+     *
+     * @param gameResult the result of a game
+     * @return {@code true} if the game was played by two different players
+     */
+    public static boolean isRated(GameResult gameResult) {
+        return gameResult.getPlayer1() != null && gameResult.getPlayer2() != null
+                && !gameResult.getPlayer1().equals(gameResult.getPlayer2());
+    }
+
+    /**
+     * Updates the ratings of the players of a game.
+     *
+     * @param first      the rating of the first player
+     * @param second     the rating of the second player
+     * @param firstScore the score of the first player
+     */
+    public void update(Rating first, Rating second, double firstScore) {
+        double change = k * (firstScore - expectedScore(first.getRating(), second.getRating()));
+        first.setRating(first.getRating() + change);
+        first.setGames(first.getGames() + 1);
+        second.setRating(second.getRating() - change);
+        second.setGames(second.getGames() + 1);
+    }
+
+    /**
+     * Updates the ratings of the players of a game, adding the players not rated yet.
+     *
+     * @param ratings    the ratings by the names of the players
+     * @param gameResult the result of the game
+     * @return {@code true} if the game was rated
+     */
+    public boolean apply(Map<String, Rating> ratings, GameResult gameResult) {
+        if (!isRated(gameResult)) {
+            return false;
+        }
+        var first = ratings.computeIfAbsent(gameResult.getPlayer1(), Elo::newRating);
+        var second = ratings.computeIfAbsent(gameResult.getPlayer2(), Elo::newRating);
+        double score = gameResult.getPlayer1().equals(gameResult.getWinner()) ? 1
+                : gameResult.getPlayer2().equals(gameResult.getWinner()) ? 0
+                : 0.5;
+        update(first, second, score);
+        return true;
+    }
+
+    private static Rating newRating(String name) {
+        return new Rating(name, INITIAL_RATING, 0);
+    }
+}
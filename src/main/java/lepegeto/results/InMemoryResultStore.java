@@ -0,0 +1,156 @@
+package lepegeto.results;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link ResultStore} holding everything on the heap, for tests and simulations. Nothing survives the store.
+ *
+ * <p>The results are kept in the order of the pages, so a page costs the logarithm of the number of results.
+ * The statistics and the ratings are kept by player and sorted when the best players are asked for. The store
+ * keeps copies of the results, and hands out copies, so changing a result never corrupts the order.</p>
+ */
+public class InMemoryResultStore implements ResultStore {
+
+    private static final Comparator<GameResult> PAGE_ORDER = Comparator.comparingInt(GameResult::getSteps)
+            .thenComparingLong(GameResult::getId);
+
+    private static final Comparator<PlayerStats> WINS_ORDER = Comparator.comparingInt(PlayerStats::getWins).reversed()
+            .thenComparing(PlayerStats::getName);
+
+    private static final Comparator<Rating> RATING_ORDER = Comparator.comparingDouble(Rating::getRating).reversed()
+            .thenComparing(Rating::getName);
+
+    private final Elo elo;
+    private final TreeSet<GameResult> results = new TreeSet<>(PAGE_ORDER);
+    private final Map<String, PlayerStats> stats = new HashMap<>();
+    private final Map<String, Rating> ratings = new HashMap<>();
+    private long lastId;
+
+    /**
+     * Creates an empty {@code InMemoryResultStore} rating the players with the default {@link Elo}.
+     */
+    public InMemoryResultStore() {
+        this(new Elo());
+    }
+
+    /**
+     * Creates an empty {@code InMemoryResultStore}.
+     *
+     * @param elo the rating system of the players
+     */
+    public InMemoryResultStore(Elo elo) {
+        this.elo = elo;
+    }
+
+    @Override
+    public synchronized void insert(GameResult gameResult) {
+        var stored = copy(gameResult);
+        stored.setId(++lastId);
+        results.add(stored);
+        updatePlayerStats(stored);
+        elo.apply(ratings, stored);
+        gameResult.setId(stored.getId());
+    }
+
+    @Override
+    public synchronized void insertAll(List<GameResult> gameResults) {
+        for (var gameResult : gameResults) {
+            insert(gameResult);
+        }
+    }
+
+    private void updatePlayerStats(GameResult gameResult) {
+        updatePlayerStats(gameResult.getPlayer1(), gameResult);
+        if (gameResult.getPlayer2() != null && !gameResult.getPlayer2().equals(gameResult.getPlayer1())) {
+            updatePlayerStats(gameResult.getPlayer2(), gameResult);
+        }
+    }
+
+    private void updatePlayerStats(String name, GameResult gameResult) {
+        if (name == null) {
+            return;
+        }
+        int win = name.equals(gameResult.getWinner()) ? 1 : 0;
+        var player = stats.get(name);
+        if (player == null) {
+            stats.put(name, new PlayerStats(name, 1, win, gameResult.getSteps(), gameResult.getSteps(), gameResult.getCreated()));
+            return;
+        }
+        player.setGames(player.getGames() + 1);
+        player.setWins(player.getWins() + win);
+        player.setMinSteps(Math.min(player.getMinSteps(), gameResult.getSteps()));
+        player.setTotalSteps(player.getTotalSteps() + gameResult.getSteps());
+        if (player.getLastPlayed() == null
+                || gameResult.getCreated() != null && gameResult.getCreated().isAfter(player.getLastPlayed())) {
+            player.setLastPlayed(gameResult.getCreated());
+        }
+    }
+
+    @Override
+    public synchronized List<GameResult> fetchPage(GameResult after, int limit) {
+        var page = new ArrayList<GameResult>(Math.min(limit, results.size()));
+        for (var gameResult : after == null ? results : results.tailSet(after, false)) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(copy(gameResult));
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized Optional<PlayerStats> getPlayerStats(String name) {
+        return Optional.ofNullable(stats.get(name)).map(InMemoryResultStore::copy);
+    }
+
+    @Override
+    public synchronized List<PlayerStats> fetchTopPlayers(int limit) {
+        return stats.values().stream()
+                .sorted(WINS_ORDER)
+                .limit(limit)
+                .map(InMemoryResultStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Optional<Rating> getRating(String name) {
+        return Optional.ofNullable(ratings.get(name)).map(InMemoryResultStore::copy);
+    }
+
+    @Override
+    public synchronized List<Rating> fetchTopRatings(int limit) {
+        return ratings.values().stream()
+                .sorted(RATING_ORDER)
+                .limit(limit)
+                .map(InMemoryResultStore::copy)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Does nothing, the results are left to the garbage collector.
+     */
+    @Override
+    public void close() {
+    }
+
+    private static GameResult copy(GameResult gameResult) {
+        return new GameResult(gameResult.getWinner(), gameResult.getPlayer1(), gameResult.getPlayer2(),
+                gameResult.getSteps(), gameResult.getCreated(), gameResult.getId());
+    }
+
+    private static PlayerStats copy(PlayerStats playerStats) {
+        return new PlayerStats(playerStats.getName(), playerStats.getGames(), playerStats.getWins(),
+                playerStats.getMinSteps(), playerStats.getTotalSteps(), playerStats.getLastPlayed());
+    }
+
+    private static Rating copy(Rating rating) {
+        return new Rating(rating.getName(), rating.getRating(), rating.getGames());
+    }
+}
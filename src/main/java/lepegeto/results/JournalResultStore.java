@@ -0,0 +1,340 @@
+package lepegeto.results;
+
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link ResultStore} appending the results to a memory-mapped journal file, for very high insert rates.
+ *
+ * <p>Storing a result copies it into the mapping of the file, without a system call, and the operating system
+ * writes it back to the disk. The results survive the crash of the process, but the results of the last few
+ * seconds may be lost if the machine crashes before they are written back; {@link #force} and {@link #close}
+ * wait for the disk. The mapping grows by doubling, up to 2 GB.</p>
+ *
+ * <p>The journal starts with a magic number and the format version. Every result follows as the length and the
+ * CRC-32 of its body, then the body: the steps, the timestamp of the result as seconds and nanoseconds, or a
+ * flag if it has none, then the winner and the two players as 16-bit lengths, {@code -1} for {@code null},
+ * followed by their UTF-8 bytes. Ids are not written: the {@link InMemoryResultStore} numbers the results from
+ * 1 in the order of the journal, so a result keeps its id when the journal is opened again. The length of the
+ * first result of a batch is written last, so a batch is read back whole or not at all, and the journal ends
+ * at the first zero length or damaged result.</p>
+ *
+ * <p>The journal is never read after it is opened: the results are read into an {@link InMemoryResultStore},
+ * which answers the queries, so the store needs memory for every result.</p>
+ */
+public class JournalResultStore implements ResultStore {
+
+    /**
+     * The magic number at the start of the journal.
+     */
+    static final int MAGIC = 0x4c50524a;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of the length and the checksum before every body.
+     */
+    static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * The default initial size of the mapping.
+     */
+    public static final int DEFAULT_INITIAL_SIZE = 1 << 20;
+
+    private static final int MAX_SIZE = Integer.MAX_VALUE;
+
+    private static final byte NO_TIMESTAMP = 0;
+
+    private static final byte TIMESTAMP = 1;
+
+    private final FileChannel channel;
+    private final InMemoryResultStore index;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    /**
+     * Opens a journal with the default initial size, creating it if it does not exist.
+     *
+     * @param path the path of the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public JournalResultStore(Path path) throws IOException {
+        this(path, DEFAULT_INITIAL_SIZE, new Elo());
+    }
+
+    /**
+     * Opens a journal, creating it if it does not exist, and reads the results stored in it.
+     *
+     * @param path        the path of the journal
+     * @param initialSize the initial size of the mapping of a new journal
+     * @param elo         the rating system of the players
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public JournalResultStore(Path path, int initialSize, Elo elo) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            index = new InMemoryResultStore(elo);
+            long size = channel.size();
+            if (size > MAX_SIZE) {
+                throw new IOException(String.format("Journal too large: %s", path));
+            }
+            map((int) Math.max(size, Math.max(initialSize, HEADER_SIZE + RECORD_HEADER_SIZE)));
+            if (size == 0) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(String.format("Not a result journal: %s", path));
+            }
+            read(path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(int size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void read(Path path) {
+        position = HEADER_SIZE;
+        var crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                // The rest of a batch torn by a crash may follow the end, clear it so it is never read back.
+                clear(position);
+                return;
+            }
+            int start = position + RECORD_HEADER_SIZE;
+            if (length < 0 || length > buffer.capacity() - start || checksum(crc, start, length) != buffer.getInt(position + 4)) {
+                Logger.warn("Damaged result at {} of {}, the rest of the journal is discarded", position, path);
+                clear(position);
+                return;
+            }
+            index.insert(decode(buffer.slice(start, length)));
+            position = start + length;
+        }
+    }
+
+    /**
+     * Zeroes the journal from a position to its end, writing only where it is not zero already, so the clean
+     * pages of the mapping are not written back to the disk.
+     */
+    private void clear(int from) {
+        int i = from;
+        for (; i + 8 <= buffer.capacity(); i += 8) {
+            if (buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0);
+            }
+        }
+        for (; i < buffer.capacity(); ++i) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private int checksum(CRC32 crc, int start, int length) {
+        crc.reset();
+        crc.update(buffer.slice(start, length));
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void insert(GameResult gameResult) {
+        insertAll(List.of(gameResult));
+    }
+
+    @Override
+    public synchronized void insertAll(List<GameResult> gameResults) {
+        if (gameResults.isEmpty()) {
+            return;
+        }
+        var records = new ArrayList<byte[]>(gameResults.size());
+        long total = 0;
+        for (var gameResult : gameResults) {
+            var body = encode(gameResult);
+            records.add(body);
+            total += RECORD_HEADER_SIZE + body.length;
+        }
+        // The zero length after the last record marks the end of the journal.
+        ensureCapacity(total + 4);
+
+        var crc = new CRC32();
+        int first = position;
+        int next = position;
+        for (var body : records) {
+            crc.reset();
+            crc.update(body);
+            if (next != first) {
+                buffer.putInt(next, body.length);
+            }
+            buffer.putInt(next + 4, (int) crc.getValue());
+            buffer.put(next + RECORD_HEADER_SIZE, body);
+            next += RECORD_HEADER_SIZE + body.length;
+        }
+        buffer.putInt(next, 0);
+        buffer.putInt(first, records.get(0).length);
+        position = next;
+        index.insertAll(gameResults);
+    }
+
+    private void ensureCapacity(long needed) {
+        if (position + needed <= buffer.capacity()) {
+            return;
+        }
+        if (position + needed > MAX_SIZE) {
+            throw new IllegalStateException("The journal is full");
+        }
+        long size = Math.min(MAX_SIZE, Math.max(position + needed, 2L * buffer.capacity()));
+        try {
+            map((int) size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encodes the body of a result.
+     *
+     * @param gameResult the result
+     * @return the body
+     * @throws IllegalArgumentException if a name is longer than 65535 bytes
+     */
+    static byte[] encode(GameResult gameResult) {
+        var winner = bytes(gameResult.getWinner());
+        var player1 = bytes(gameResult.getPlayer1());
+        var player2 = bytes(gameResult.getPlayer2());
+        var created = gameResult.getCreated();
+        int size = 4 + 1 + (created == null ? 0 : 12) + 6 + length(winner) + length(player1) + length(player2);
+        var body = ByteBuffer.allocate(size);
+        body.putInt(gameResult.getSteps());
+        if (created == null) {
+            body.put(NO_TIMESTAMP);
+        } else {
+            var instant = created.toInstant();
+            body.put(TIMESTAMP);
+            body.putLong(instant.getEpochSecond());
+            body.putInt(instant.getNano());
+        }
+        putString(body, winner);
+        putString(body, player1);
+        putString(body, player2);
+        return body.array();
+    }
+
+    /**
+     * Decodes the body of a result, giving its timestamp in the default time zone.
+     *
+     * @param body the body
+     * @return the result, without an id
+     */
+    static GameResult decode(ByteBuffer body) {
+        var gameResult = new GameResult();
+        gameResult.setSteps(body.getInt());
+        if (body.get() == TIMESTAMP) {
+            long seconds = body.getLong();
+            int nanos = body.getInt();
+            gameResult.setCreated(ZonedDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneId.systemDefault()));
+        }
+        gameResult.setWinner(getString(body));
+        gameResult.setPlayer1(getString(body));
+        gameResult.setPlayer2(getString(body));
+        return gameResult;
+    }
+
+    private static byte[] bytes(String string) {
+        if (string == null) {
+            return null;
+        }
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xffff - 1) {
+            throw new IllegalArgumentException("Name too long: " + string.length() + " characters");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer body, byte[] bytes) {
+        if (bytes == null) {
+            body.putShort((short) -1);
+        } else {
+            body.putShort((short) bytes.length);
+            body.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = Short.toUnsignedInt(body.getShort());
+        if (length == 0xffff) {
+            return null;
+        }
+        var bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public List<GameResult> fetchPage(GameResult after, int limit) {
+        return index.fetchPage(after, limit);
+    }
+
+    @Override
+    public Optional<PlayerStats> getPlayerStats(String name) {
+        return index.getPlayerStats(name);
+    }
+
+    @Override
+    public List<PlayerStats> fetchTopPlayers(int limit) {
+        return index.fetchTopPlayers(limit);
+    }
+
+    @Override
+    public Optional<Rating> getRating(String name) {
+        return index.getRating(name);
+    }
+
+    @Override
+    public List<Rating> fetchTopRatings(int limit) {
+        return index.fetchTopRatings(limit);
+    }
+
+    /**
+     * Waits until the stored results are written to the disk.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Writes the stored results to the disk and closes the journal.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            Logger.error(e, "Cannot close the result journal");
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package lepegeto.results;
+
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the best {@link GameResult}s, the shortest games first, in the order of
+ * {@link ResultStore#fetchPage}.
+ *
+ * <p>The board is read from the database once, when it is created, and then kept up to date by {@link #add},
+ * which is called when a result is recorded, so reading it never touches the database. Only the best
+ * {@code capacity} results are kept; a result that cannot make it to the board is not stored in memory.</p>
+ *
+ * <p>The board can be reloaded from the database, periodically if {@link #scheduleReload} is called. Results
+ * added but not yet stored in the database are kept across reloads. The {@link ResultRecorder} stores results
+ * through {@link #store}, which never runs at the same time as a reload, so a reload sees every result either in
+ * the database or as not yet stored, and never twice. Results that cannot be stored are taken off the board with
+ * {@link #drop}.</p>
+ */
+@Singleton
+public class Leaderboard implements AutoCloseable {
+
+    /**
+     * The default number of results kept.
+     */
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * A result on the board. Results read from the database are ordered by their id, results added later come
+     * after them in the order they were added.
+     */
+    private record Entry(GameResult result, int generation, long sequence) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> entry.result().getSteps())
+            .thenComparingInt(Entry::generation)
+            .thenComparingLong(Entry::sequence);
+
+    private final ResultStore resultStore;
+    private final int capacity;
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<GameResult, Entry> unstored = new IdentityHashMap<>();
+    private final ReentrantLock storeLock = new ReentrantLock();
+    private long sequence;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a {@code Leaderboard} of the default capacity and reads it from the database.
+     *
+     * @param resultStore the store of the results
+     */
+    @Inject
+    public Leaderboard(ResultStore resultStore) {
+        this(resultStore, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a {@code Leaderboard} and reads it from the database.
+     *
+     * @param resultStore the store of the results
+     * @param capacity    the number of results kept
+     */
+    public Leaderboard(ResultStore resultStore, int capacity) {
+        this.resultStore = resultStore;
+        this.capacity = capacity;
+        reload();
+    }
+
+    /**
+     * Returns the number of results kept.
+     *
+     * @return the capacity of the board
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a result that is going to be stored with {@link #store}.
+     *
+     * @param gameResult the result of a game
+     */
+    public synchronized void add(GameResult gameResult) {
+        var entry = new Entry(gameResult, 1, sequence++);
+        unstored.put(gameResult, entry);
+        insert(entry);
+    }
+
+    private void insert(Entry entry) {
+        if (entries.size() < capacity) {
+            entries.add(entry);
+        } else if (ORDER.compare(entry, entries.last()) < 0) {
+            entries.pollLast();
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Returns the best results.
+     *
+     * @param limit the maximum number of results
+     * @return the best results, the shortest games first
+     */
+    public synchronized List<GameResult> top(int limit) {
+        var top = new ArrayList<GameResult>(Math.min(limit, entries.size()));
+        for (var entry : entries) {
+            if (top.size() == limit) {
+                break;
+            }
+            top.add(entry.result());
+        }
+        return top;
+    }
+
+    /**
+     * Stores results added with {@link #add}, never at the same time as a reload. The results are no longer
+     * treated as unstored once they are stored; if storing them fails they stay unstored, to be stored again
+     * or given up with {@link #drop}.
+     *
+     * @param batch  the results
+     * @param insert stores the results in the database
+     */
+    public void store(List<GameResult> batch, Runnable insert) {
+        storeLock.lock();
+        try {
+            insert.run();
+            synchronized (this) {
+                for (var gameResult : batch) {
+                    unstored.remove(gameResult);
+                }
+            }
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes results added with {@link #add} that could not be stored, so the board only shows results that are
+     * in the database. The board may hold fewer results than its capacity until the next reload.
+     *
+     * @param batch the results
+     */
+    public synchronized void drop(List<GameResult> batch) {
+        for (var gameResult : batch) {
+            var entry = unstored.remove(gameResult);
+            if (entry != null) {
+                entries.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Reads the board from the database again, keeping the results added but not yet stored.
+     */
+    public void reload() {
+        storeLock.lock();
+        try {
+            var stored = resultStore.fetchPage(null, capacity);
+            synchronized (this) {
+                entries.clear();
+                for (var gameResult : stored) {
+                    entries.add(new Entry(gameResult, 0, gameResult.getId()));
+                }
+                for (var entry : unstored.values()) {
+                    insert(entry);
+                }
+            }
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the board from the database periodically, to pick up changes made by others.
+     *
+     * @param period the time between reloads
+     */
+    public synchronized void scheduleReload(Duration period) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "leaderboard-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                Logger.warn(e, "Cannot reload the leaderboard");
+            }
+        }, period.toNanos(), period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the periodic reloads, waiting for a running reload instead of interrupting it inside H2's file I/O,
+     * so the store can be closed afterwards.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            stopped = scheduler;
+            scheduler = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.shutdown();
+        try {
+            if (!stopped.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                Logger.error("Leaderboard reload did not finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
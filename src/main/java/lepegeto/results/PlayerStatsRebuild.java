@@ -0,0 +1,87 @@
+package lepegeto.results;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.tinylog.Logger;
+
+/**
+ * Computes the statistics of the players again from the stored results, for databases created before the
+ * statistics were kept, or after the results were changed by hand.
+ *
+ * <p>The results are read in chunks of {@code chunkSize} in the order they were stored, following their ids, so
+ * the job needs the same memory however many results there are. Every chunk is added to the statistics in a
+ * transaction of its own, the first one also replacing the old statistics with the daily summaries of the
+ * results rolled up by the {@link ResultRetention}. Results should not be recorded while the job runs, as a
+ * result stored after its chunk was read would be counted twice.</p>
+ */
+public class PlayerStatsRebuild {
+
+    /**
+     * The default number of results read at a time.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final ResultManager manager;
+    private final int chunkSize;
+
+    /**
+     * Creates a {@code PlayerStatsRebuild}.
+     *
+     * @param manager   the store of the results
+     * @param chunkSize the number of results read at a time
+     */
+    public PlayerStatsRebuild(ResultManager manager, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        this.manager = manager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Replaces the statistics of the players with the ones computed from the stored results.
+     *
+     * @return the number of results read
+     */
+    public long run() {
+        long count = 0;
+        long last = 0;
+        boolean first = true;
+        while (true) {
+            long after = last;
+            boolean clear = first;
+            var chunk = manager.getJdbi().inTransaction(handle -> {
+                var dao = handle.attach(ResultDao.class);
+                if (clear) {
+                    dao.deletePlayerStats();
+                    dao.insertPlayerStatsFromSummaries();
+                }
+                var results = dao.fetchChunk(after, chunkSize);
+                ResultManager.updatePlayerStats(dao, results);
+                return results;
+            });
+            first = false;
+            count += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            last = chunk.get(chunk.size() - 1).getId();
+            Logger.debug("{} results read", count);
+        }
+        Logger.info("Statistics of the players rebuilt from {} results", count);
+        return count;
+    }
+
+    /**
+     * Rebuilds the statistics of the players of a database.
+     *
+     * @param args optionally the JDBC URL of the database, {@link ResultModule#DEFAULT_URL} by default, and the
+     *             chunk size
+     */
+    public static void main(String[] args) {
+        var url = args.length > 0 ? args[0] : ResultModule.DEFAULT_URL;
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHUNK_SIZE;
+        try (var manager = new ResultManager(JdbcConnectionPool.create(url, "", ""))) {
+            System.out.println(new PlayerStatsRebuild(manager, chunkSize).run() + " results read");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package lepegeto.results;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.tinylog.Logger;
+
+import java.util.HashMap;
+
+/**
+ * Computes the ratings of the players again from the whole history of the results, for databases created before
+ * the ratings were kept, or after the rating system was changed.
+ *
+ * <p>The results are streamed from the database in the order the games were played, reading only the players and
+ * the winner, and the ratings are updated in memory, so the job needs memory for the players but not for the
+ * results. The new ratings replace the old ones in one transaction at the end. Results should not be recorded
+ * while the job runs, as their rating updates would be overwritten. The order of the games is lost when they are
+ * rolled up by the {@link ResultRetention}, so only the results still kept are rated again.</p>
+ */
+public class RatingRecompute {
+
+    private final ResultManager manager;
+
+    /**
+     * Creates a {@code RatingRecompute}.
+     *
+     * @param manager the store of the results
+     */
+    public RatingRecompute(ResultManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Replaces the ratings of the players with the ones computed from the stored results.
+     *
+     * @return the number of rated games
+     */
+    public long run() {
+        long start = System.nanoTime();
+        var elo = manager.getElo();
+        var ratings = new HashMap<String, Rating>();
+        long rated = manager.getJdbi().withExtension(ResultDao.class, dao -> {
+            if (dao.countSummaries() > 0) {
+                Logger.warn("Results rolled up into daily summaries are not rated again");
+            }
+            long count = 0;
+            try (var history = dao.streamHistory()) {
+                var iterator = history.iterator();
+                while (iterator.hasNext()) {
+                    if (elo.apply(ratings, iterator.next())) {
+                        ++count;
+                    }
+                }
+            }
+            return count;
+        });
+        manager.getJdbi().useTransaction(handle -> {
+            var dao = handle.attach(ResultDao.class);
+            dao.deleteRatings();
+            dao.mergeRatings(ratings.values());
+        });
+        Logger.info("Ratings of {} players recomputed from {} games in {} ms", ratings.size(), rated,
+                (System.nanoTime() - start) / 1_000_000);
+        return rated;
+    }
+
+    /**
+     * Recomputes the ratings of the players of a database.
+     *
+     * @param args optionally the JDBC URL of the database, {@link ResultModule#DEFAULT_URL} by default
+     */
+    public static void main(String[] args) {
+        var url = args.length > 0 ? args[0] : ResultModule.DEFAULT_URL;
+        try (var manager = new ResultManager(JdbcConnectionPool.create(url, "", ""))) {
+            System.out.println(new RatingRecompute(manager).run() + " games rated");
+        }
+    }
+}
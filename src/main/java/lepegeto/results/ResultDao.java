@@ -1,13 +1,27 @@
 package lepegeto.results;
 
 import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.customizer.FetchSize;
+import org.jdbi.v3.sqlobject.statement.BatchChunkSize;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RegisterBeanMapper(lepegeto.results.GameResult.class)
+@RegisterBeanMapper(lepegeto.results.PlayerStats.class)
+@RegisterBeanMapper(lepegeto.results.Rating.class)
+@RegisterBeanMapper(lepegeto.results.DailySummary.class)
 public interface ResultDao {
     @SqlUpdate("""
             CREATE TABLE IF NOT EXISTS lepegeto (
@@ -15,17 +29,338 @@ public interface ResultDao {
             player1 VARCHAR2,
             player2 VARCHAR2,
             steps INTEGER,
-            created TIMESTAMP
+            created TIMESTAMP,
+            id BIGINT AUTO_INCREMENT
             )
             """)
     void createTable();
 
+    /**
+     * Adds the {@code id} column to a table created before it existed, numbering the rows already stored.
+     */
     @SqlUpdate("""
-            INSERT INTO lepegeto values(:winner,:player1,:player2,:steps,:created)
-            """) void insertIntoTable(@BindBean GameResult gameResult);
+            ALTER TABLE lepegeto ADD COLUMN IF NOT EXISTS id BIGINT AUTO_INCREMENT
+            """)
+    void addIdColumn();
+
+    @SqlUpdate("""
+            CREATE INDEX IF NOT EXISTS lepegeto_steps ON lepegeto(steps, id)
+            """)
+    void createStepsIndex();
+
+    /**
+     * Creates the index of the time-range queries, ordered by the timestamp and then the id like the pages.
+     */
+    @SqlUpdate("""
+            CREATE INDEX IF NOT EXISTS lepegeto_created_id ON lepegeto(created, id)
+            """)
+    void createCreatedIndex();
+
+    @SqlUpdate("""
+            CREATE INDEX IF NOT EXISTS lepegeto_id ON lepegeto(id)
+            """)
+    void createIdIndex();
+
+    /**
+     * Creates the table of the statistics of the players, one row per player, aggregated from the results.
+     */
+    @SqlUpdate("""
+            CREATE TABLE IF NOT EXISTS player_stats (
+            name VARCHAR2 PRIMARY KEY,
+            games INTEGER NOT NULL,
+            wins INTEGER NOT NULL,
+            min_steps INTEGER NOT NULL,
+            total_steps BIGINT NOT NULL,
+            last_played TIMESTAMP
+            )
+            """)
+    void createPlayerStatsTable();
+
+    @SqlUpdate("""
+            CREATE INDEX IF NOT EXISTS player_stats_wins ON player_stats(wins DESC, name)
+            """)
+    void createPlayerStatsWinsIndex();
+
+    /**
+     * Creates the table of the ratings of the players.
+     */
+    @SqlUpdate("""
+            CREATE TABLE IF NOT EXISTS ratings (
+            name VARCHAR2 PRIMARY KEY,
+            rating DOUBLE NOT NULL,
+            games INTEGER NOT NULL
+            )
+            """)
+    void createRatingsTable();
+
+    @SqlUpdate("""
+            CREATE INDEX IF NOT EXISTS ratings_rating ON ratings(rating DESC, name)
+            """)
+    void createRatingsIndex();
+
+    /**
+     * Creates the table of the results rolled up by the retention, one row per player and day.
+     */
+    @SqlUpdate("""
+            CREATE TABLE IF NOT EXISTS result_summary (
+            played_on DATE NOT NULL,
+            name VARCHAR2 NOT NULL,
+            games INTEGER NOT NULL,
+            wins INTEGER NOT NULL,
+            min_steps INTEGER NOT NULL,
+            total_steps BIGINT NOT NULL,
+            last_played TIMESTAMP,
+            PRIMARY KEY (played_on, name)
+            )
+            """)
+    void createSummaryTable();
+
+    @SqlUpdate("""
+            INSERT INTO lepegeto (winner, player1, player2, steps, created) values(:winner,:player1,:player2,:steps,:created)
+            """)
+    @GetGeneratedKeys("id")
+    long insertIntoTable(@BindBean GameResult gameResult);
+
+    /**
+     * Stores many results in one JDBC batch.
+     *
+     * @param gameResults the results
+     * @return the ids given to the results, in the same order
+     */
+    @SqlBatch("""
+            INSERT INTO lepegeto (winner, player1, player2, steps, created) values(:winner,:player1,:player2,:steps,:created)
+            """)
+    @GetGeneratedKeys("id")
+    long[] insertAll(@BindBean List<GameResult> gameResults);
+
+    /**
+     * Returns the first page of the results, the shortest games first.
+     *
+     * @param limit the maximum number of results
+     * @return the results
+     */
+    @SqlQuery("""
+            SELECT * FROM lepegeto ORDER BY steps, id LIMIT :limit
+            """)
+    List<GameResult> fetchFirst(@Bind("limit") int limit);
+
+    /**
+     * Returns the page of the results after a given one, read from the {@code lepegeto_steps} index.
+     *
+     * @param steps the steps of the last result of the previous page
+     * @param id    the id of the last result of the previous page
+     * @param limit the maximum number of results
+     * @return the results
+     */
+    @SqlQuery("""
+            SELECT * FROM lepegeto
+            WHERE steps >= :steps AND (steps > :steps OR id > :id)
+            ORDER BY steps, id LIMIT :limit
+            """)
+    List<GameResult> fetchAfter(@Bind("steps") int steps, @Bind("id") long id, @Bind("limit") int limit);
+
+    /**
+     * Returns the results stored after a given one, in the order they were stored, read from the
+     * {@code lepegeto_id} index.
+     *
+     * @param id    the id of the last result of the previous chunk, {@code 0} for the first chunk
+     * @param limit the maximum number of results
+     * @return the results
+     */
+    @SqlQuery("""
+            SELECT * FROM lepegeto WHERE id > :id ORDER BY id LIMIT :limit
+            """)
+    List<GameResult> fetchChunk(@Bind("id") long id, @Bind("limit") int limit);
+
+    /**
+     * Adds results to the statistics of the players, creating the rows of new players. The names and the results
+     * are paired up, so a result shared by two players is bound once for each of them.
+     *
+     * @param names       the names of the players
+     * @param gameResults the results of the games played by them
+     */
+    @SqlBatch("""
+            MERGE INTO player_stats s
+            USING (SELECT CAST(:name AS VARCHAR2) AS name,
+                CAST(CASE WHEN :winner = :name THEN 1 ELSE 0 END AS INTEGER) AS win,
+                CAST(:steps AS INTEGER) AS steps,
+                CAST(:created AS TIMESTAMP) AS created) v
+            ON s.name = v.name
+            WHEN MATCHED THEN UPDATE SET games = s.games + 1, wins = s.wins + v.win,
+                min_steps = LEAST(s.min_steps, v.steps), total_steps = s.total_steps + v.steps,
+                last_played = GREATEST(s.last_played, v.created)
+            WHEN NOT MATCHED THEN INSERT (name, games, wins, min_steps, total_steps, last_played)
+                VALUES (v.name, 1, v.win, v.steps, v.steps, v.created)
+            """)
+    void updatePlayerStats(@Bind("name") List<String> names, @BindBean List<GameResult> gameResults);
+
+    @SqlUpdate("""
+            DELETE FROM player_stats
+            """)
+    void deletePlayerStats();
+
+    @SqlQuery("""
+            SELECT * FROM player_stats WHERE name = :name
+            """)
+    Optional<PlayerStats> fetchPlayerStats(@Bind("name") String name);
+
+    /**
+     * Returns the players who won the most games, read from the {@code player_stats_wins} index.
+     *
+     * @param limit the maximum number of players
+     * @return the statistics of the players
+     */
+    @SqlQuery("""
+            SELECT * FROM player_stats ORDER BY wins DESC, name LIMIT :limit
+            """)
+    List<PlayerStats> fetchTopPlayers(@Bind("limit") int limit);
+
+    /**
+     * Returns every stored result in the order the games were played, fetching them from the database a chunk at a
+     * time. Only the players and the winner are read.
+     *
+     * @return the results, to be closed after use
+     */
+    @SqlQuery("""
+            SELECT player1, player2, winner FROM lepegeto ORDER BY created, id
+            """)
+    @FetchSize(1000)
+    Stream<GameResult> streamHistory();
 
+    /**
+     * Returns the ratings of some players.
+     *
+     * @param names the names of the players, not empty
+     * @return the ratings of the players already rated
+     */
     @SqlQuery("""
-            SELECT * FROM lepegeto ORDER BY steps ASC
+            SELECT * FROM ratings WHERE name IN (<names>)
+            """)
+    List<Rating> fetchRatings(@BindList("names") Collection<String> names);
+
+    /**
+     * Stores ratings, replacing the ones of the same players.
+     *
+     * @param ratings the ratings
+     */
+    @SqlBatch("""
+            MERGE INTO ratings (name, rating, games) KEY(name) VALUES (:name, :rating, :games)
+            """)
+    @BatchChunkSize(1000)
+    void mergeRatings(@BindBean Collection<Rating> ratings);
+
+    @SqlUpdate("""
+            DELETE FROM ratings
+            """)
+    void deleteRatings();
+
+    @SqlQuery("""
+            SELECT * FROM ratings WHERE name = :name
+            """)
+    Optional<Rating> fetchRating(@Bind("name") String name);
+
+    /**
+     * Returns the best rated players, read from the {@code ratings_rating} index.
+     *
+     * @param limit the maximum number of players
+     * @return the ratings
+     */
+    @SqlQuery("""
+            SELECT * FROM ratings ORDER BY rating DESC, name LIMIT :limit
+            """)
+    List<Rating> fetchTopRatings(@Bind("limit") int limit);
+
+    /**
+     * Returns a page of the results stored in a time range, in the order they were played, read from the
+     * {@code lepegeto_created_id} index.
+     *
+     * @param after the timestamp of the last result of the previous page, or the start of the range, inclusive,
+     *              for the first page
+     * @param id    the id of the last result of the previous page, {@code 0} for the first page
+     * @param to    the end of the range, exclusive
+     * @param limit the maximum number of results
+     * @return the results
+     */
+    @SqlQuery("""
+            SELECT * FROM lepegeto
+            WHERE created >= :after AND created < :to AND (created > :after OR id > :id)
+            ORDER BY created, id LIMIT :limit
+            """)
+    List<GameResult> fetchBetween(@Bind("after") ZonedDateTime after, @Bind("id") long id, @Bind("to") ZonedDateTime to,
+                                  @Bind("limit") int limit);
+
+    /**
+     * Counts the results stored in a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return the number of results
+     */
+    @SqlQuery("""
+            SELECT COUNT(*) FROM lepegeto WHERE created >= :from AND created < :to
+            """)
+    long countBetween(@Bind("from") ZonedDateTime from, @Bind("to") ZonedDateTime to);
+
+    /**
+     * Returns the oldest results played before a time, except the best ones, read from the
+     * {@code lepegeto_created_id} index.
+     *
+     * @param cutoff    the time, exclusive
+     * @param keepSteps the steps of the worst result to keep
+     * @param keepId    the id of the worst result to keep
+     * @param limit     the maximum number of results
+     * @return the results, the oldest first
+     */
+    @SqlQuery("""
+            SELECT * FROM lepegeto
+            WHERE created < :cutoff AND (steps > :keepSteps OR steps = :keepSteps AND id > :keepId)
+            ORDER BY created, id LIMIT :limit
+            """)
+    List<GameResult> fetchExpired(@Bind("cutoff") ZonedDateTime cutoff, @Bind("keepSteps") int keepSteps,
+                                  @Bind("keepId") long keepId, @Bind("limit") int limit);
+
+    @SqlUpdate("""
+            DELETE FROM lepegeto WHERE id IN (<ids>)
+            """)
+    int deleteResults(@BindList("ids") Collection<Long> ids);
+
+    /**
+     * Adds summaries to the ones of the same players and days.
+     *
+     * @param summaries the summaries
+     */
+    @SqlBatch("""
+            MERGE INTO result_summary s
+            USING (SELECT CAST(:playedOn AS DATE) AS played_on, CAST(:name AS VARCHAR2) AS name,
+                CAST(:games AS INTEGER) AS games, CAST(:wins AS INTEGER) AS wins,
+                CAST(:minSteps AS INTEGER) AS min_steps, CAST(:totalSteps AS BIGINT) AS total_steps,
+                CAST(:lastPlayed AS TIMESTAMP) AS last_played) v
+            ON s.played_on = v.played_on AND s.name = v.name
+            WHEN MATCHED THEN UPDATE SET games = s.games + v.games, wins = s.wins + v.wins,
+                min_steps = LEAST(s.min_steps, v.min_steps), total_steps = s.total_steps + v.total_steps,
+                last_played = GREATEST(s.last_played, v.last_played)
+            WHEN NOT MATCHED THEN INSERT (played_on, name, games, wins, min_steps, total_steps, last_played)
+                VALUES (v.played_on, v.name, v.games, v.wins, v.min_steps, v.total_steps, v.last_played)
+            """)
+    void mergeSummaries(@BindBean Collection<DailySummary> summaries);
+
+    @SqlQuery("""
+            SELECT * FROM result_summary WHERE played_on >= :from AND played_on < :to ORDER BY played_on, name
+            """)
+    List<DailySummary> fetchSummaries(@Bind("from") LocalDate from, @Bind("to") LocalDate to);
+
+    @SqlQuery("""
+            SELECT COUNT(*) FROM result_summary
+            """)
+    long countSummaries();
+
+    /**
+     * Adds the summaries of every player to the statistics of the players, which must be empty.
+     */
+    @SqlUpdate("""
+            INSERT INTO player_stats (name, games, wins, min_steps, total_steps, last_played)
+            SELECT name, SUM(games), SUM(wins), MIN(min_steps), SUM(total_steps), MAX(last_played)
+            FROM result_summary GROUP BY name
             """)
-    ArrayList<GameResult> fetch();
+    void insertPlayerStatsFromSummaries();
 }
@@ -1,47 +1,292 @@
 package lepegeto.results;
 
+import org.h2.jdbcx.JdbcConnectionPool;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.Jdbi;
 import org.jdbi.v3.sqlobject.SqlObjectPlugin;
 
-import java.io.File;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 
-public class ResultManager {
-    static Jdbi jdbi;
+/**
+ * The {@link ResultStore} keeping the results in an H2 database, accessed through Jdbi.
+ *
+ * <p>There is one {@code ResultManager} per application, provided by {@link ResultModule}. It borrows
+ * connections from a bounded {@link JdbcConnectionPool}, so the database is opened once and every operation
+ * reuses an open H2 session, together with the statements already compiled in it. The table and its indexes
+ * are created once, when the manager is created.</p>
+ *
+ * <p>The statistics of every player are kept in a table of their own, updated in the same transaction as the
+ * results are stored, so reading them never scans the results. {@link PlayerStatsRebuild} computes the table
+ * again from the stored results.</p>
+ *
+ * <p>The {@link Elo} ratings of the players are kept up to date the same way, every stored batch of results
+ * reading the ratings of its players once and writing them back once. {@link RatingRecompute} computes them
+ * again from the whole history.</p>
+ *
+ * <p>Results can be read by the time they were played, a page at a time. {@link ResultRetention} rolls old
+ * results up into daily summaries of every player, which are kept forever.</p>
+ */
+@Singleton
+public class ResultManager implements ResultStore {
 
-    public ResultManager() {
-        jdbi = Jdbi.create("jdbc:h2:file:"+ System.getProperty("user.home") + File.separator + "lepegeto");
+    private final JdbcConnectionPool pool;
+    private final Jdbi jdbi;
+    private final Elo elo = new Elo();
+
+    /**
+     * Creates a {@code ResultManager} and makes sure the table of the results exists.
+     *
+     * @param pool the pool of the connections to the database, disposed when the manager is closed
+     */
+    @Inject
+    public ResultManager(JdbcConnectionPool pool) {
+        this.pool = pool;
+        jdbi = Jdbi.create(pool);
         jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useExtension(ResultDao.class, dao -> {
+            dao.createTable();
+            dao.addIdColumn();
+            dao.createStepsIndex();
+            dao.createCreatedIndex();
+            dao.createIdIndex();
+            dao.createPlayerStatsTable();
+            dao.createPlayerStatsWinsIndex();
+            dao.createRatingsTable();
+            dao.createRatingsIndex();
+            dao.createSummaryTable();
+        });
+    }
+
+    /**
+     * Returns the rating system of the players.
+     *
+     * @return the rating system
+     */
+    public Elo getElo() {
+        return elo;
     }
 
-    public static Jdbi getJdbi() {
+    /**
+     * Returns the {@link Jdbi} of the database.
+     *
+     * @return the jdbi instance
+     */
+    public Jdbi getJdbi() {
         return jdbi;
     }
 
+    /**
+     * Stores a result, together with the statistics of its players, and sets the id given to it.
+     *
+     * @param gameResult the result of a game
+     */
+    @Override
     public void insert(GameResult gameResult) {
+        long id = jdbi.inTransaction(handle -> {
+            var dao = handle.attach(ResultDao.class);
+            long generated = dao.insertIntoTable(gameResult);
+            updatePlayerStats(dao, List.of(gameResult));
+            updateRatings(dao, List.of(gameResult));
+            return generated;
+        });
+        gameResult.setId(id);
+    }
+
+    /**
+     * Stores many results in one transaction, sending them to the database as a single JDBC batch, together with
+     * the statistics of their players, and sets the ids given to them.
+     *
+     * @param gameResults the results of the games
+     */
+    @Override
+    public void insertAll(List<GameResult> gameResults) {
+        long[] ids = jdbi.inTransaction(handle -> {
+            var dao = handle.attach(ResultDao.class);
+            long[] generated = dao.insertAll(gameResults);
+            updatePlayerStats(dao, gameResults);
+            updateRatings(dao, gameResults);
+            return generated;
+        });
+        for (int i = 0; i < ids.length; ++i) {
+            gameResults.get(i).setId(ids[i]);
+        }
+    }
+
+    /**
+     * Adds results to the statistics of their players, once for each distinct player of a game.
+     *
+     * @param dao         the DAO of the transaction
+     * @param gameResults the results of the games
+     */
+    static void updatePlayerStats(ResultDao dao, List<GameResult> gameResults) {
+        var names = new ArrayList<String>(2 * gameResults.size());
+        var results = new ArrayList<GameResult>(2 * gameResults.size());
+        for (var gameResult : gameResults) {
+            if (gameResult.getPlayer1() != null) {
+                names.add(gameResult.getPlayer1());
+                results.add(gameResult);
+            }
+            if (gameResult.getPlayer2() != null && !gameResult.getPlayer2().equals(gameResult.getPlayer1())) {
+                names.add(gameResult.getPlayer2());
+                results.add(gameResult);
+            }
+        }
+        if (!names.isEmpty()) {
+            dao.updatePlayerStats(names, results);
+        }
+    }
+
+    /**
+     * Updates the ratings of the players of some games, in the order of the games.
+     *
+     * @param dao         the DAO of the transaction
+     * @param gameResults the results of the games
+     */
+    private void updateRatings(ResultDao dao, List<GameResult> gameResults) {
+        var names = new HashSet<String>();
+        for (var gameResult : gameResults) {
+            if (Elo.isRated(gameResult)) {
+                names.add(gameResult.getPlayer1());
+                names.add(gameResult.getPlayer2());
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        var ratings = new HashMap<String, Rating>();
+        for (var rating : dao.fetchRatings(names)) {
+            ratings.put(rating.getName(), rating);
+        }
+        for (var gameResult : gameResults) {
+            elo.apply(ratings, gameResult);
+        }
+        dao.mergeRatings(ratings.values());
+    }
+
+    /**
+     * Returns a page of the results, the shortest games first. Pages are found by their last result, so every page
+     * costs the same however deep it is.
+     *
+     * @param after the last result of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of results
+     * @return the results of the page, fewer than {@code limit} on the last page
+     */
+    @Override
+    public List<GameResult> fetchPage(GameResult after, int limit) {
+        try (Handle handle = jdbi.open()) {
+            var dao = handle.attach(ResultDao.class);
+            return after == null ? dao.fetchFirst(limit) : dao.fetchAfter(after.getSteps(), after.getId(), limit);
+        }
+    }
+
+    /**
+     * Returns a page of the results played in a time range, in the order they were played. Pages are found by
+     * their last result, so every page costs the same however deep it is.
+     *
+     * @param from  the start of the range, inclusive
+     * @param to    the end of the range, exclusive
+     * @param after the last result of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of results
+     * @return the results of the page, fewer than {@code limit} on the last page
+     */
+    public List<GameResult> fetchBetween(ZonedDateTime from, ZonedDateTime to, GameResult after, int limit) {
+        try (Handle handle = jdbi.open()) {
+            var dao = handle.attach(ResultDao.class);
+            return after == null ? dao.fetchBetween(from, 0, to, limit) : dao.fetchBetween(after.getCreated(), after.getId(), to, limit);
+        }
+    }
+
+    /**
+     * Counts the results played in a time range.
+     *
+     * @param from the start of the range, inclusive
+     * @param to   the end of the range, exclusive
+     * @return the number of results
+     */
+    public long countBetween(ZonedDateTime from, ZonedDateTime to) {
+        try (Handle handle = jdbi.open()) {
+            return handle.attach(ResultDao.class).countBetween(from, to);
+        }
+    }
+
+    /**
+     * Returns the daily summaries of the results rolled up by the {@link ResultRetention}.
+     *
+     * @param from the first day, inclusive
+     * @param to   the last day, exclusive
+     * @return the summaries, by day and then by player
+     */
+    public List<DailySummary> fetchDailySummaries(LocalDate from, LocalDate to) {
         try (Handle handle = jdbi.open()) {
-            ResultDao resultDao = handle.attach(ResultDao.class);
-            resultDao.createTable();
-            resultDao.insertIntoTable(gameResult);
+            return handle.attach(ResultDao.class).fetchSummaries(from, to);
         }
     }
 
-    public ArrayList<GameResult> fetch() {
+    /**
+     * Returns the statistics of a player.
+     *
+     * @param name the name of the player
+     * @return the statistics, empty if the player has not played yet
+     */
+    @Override
+    public Optional<PlayerStats> getPlayerStats(String name) {
         try (Handle handle = jdbi.open()) {
-            ResultDao resultDao = handle.attach(ResultDao.class);
-            resultDao.createTable();
-            return resultDao.fetch();
+            return handle.attach(ResultDao.class).fetchPlayerStats(name);
         }
     }
 
-    public static void main(String[] args) {
-        GameResult gameResult = new GameResult("a", "b", "c", 23, ZonedDateTime.now());
-        var asd = new ResultManager();
+    /**
+     * Returns the players who won the most games.
+     *
+     * @param limit the maximum number of players
+     * @return the statistics of the players, the most wins first
+     */
+    @Override
+    public List<PlayerStats> fetchTopPlayers(int limit) {
+        try (Handle handle = jdbi.open()) {
+            return handle.attach(ResultDao.class).fetchTopPlayers(limit);
+        }
+    }
+
+    /**
+     * Returns the rating of a player.
+     *
+     * @param name the name of the player
+     * @return the rating, empty if the player has not played a rated game yet
+     */
+    @Override
+    public Optional<Rating> getRating(String name) {
+        try (Handle handle = jdbi.open()) {
+            return handle.attach(ResultDao.class).fetchRating(name);
+        }
+    }
 
-        asd.insert(gameResult);
-        asd.fetch();
+    /**
+     * Returns the best rated players.
+     *
+     * @param limit the maximum number of players
+     * @return the ratings, the highest first
+     */
+    @Override
+    public List<Rating> fetchTopRatings(int limit) {
+        try (Handle handle = jdbi.open()) {
+            return handle.attach(ResultDao.class).fetchTopRatings(limit);
+        }
     }
 
+    /**
+     * Closes the connections of the pool.
+     */
+    @Override
+    public void close() {
+        pool.dispose();
+    }
 }
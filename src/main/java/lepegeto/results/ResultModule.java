@@ -0,0 +1,97 @@
+package lepegeto.results;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Guice module of the persistence of the results.
+ *
+ * <p>The {@link ResultStore} is chosen by the URL of the module:</p>
+ *
+ * <ul>
+ *     <li>{@value #MEMORY_URL}: an {@link InMemoryResultStore}</li>
+ *     <li>{@value #JOURNAL_PREFIX}{@code <path>}: a {@link JournalResultStore} at the path</li>
+ *     <li>any other URL: a {@link ResultManager} on the H2 database of the JDBC URL</li>
+ * </ul>
+ *
+ * <p>The application reads the URL from the {@value #URL_PROPERTY} system property, using {@link #DEFAULT_URL}
+ * if it is not set.</p>
+ */
+public class ResultModule extends AbstractModule {
+
+    /**
+     * The default URL of the database, a file in the home directory of the user.
+     */
+    public static final String DEFAULT_URL = "jdbc:h2:file:" + System.getProperty("user.home") + File.separator + "lepegeto";
+
+    /**
+     * The system property holding the URL of the store.
+     */
+    public static final String URL_PROPERTY = "lepegeto.results";
+
+    /**
+     * The URL of the in-memory store.
+     */
+    public static final String MEMORY_URL = "memory:";
+
+    /**
+     * The prefix of the URL of a journal.
+     */
+    public static final String JOURNAL_PREFIX = "journal:";
+
+    /**
+     * The maximum number of open connections to the database.
+     */
+    public static final int MAX_CONNECTIONS = 4;
+
+    private final String url;
+
+    /**
+     * Creates a {@code ResultModule} using the store of the {@value #URL_PROPERTY} system property, or the
+     * database at {@link #DEFAULT_URL}.
+     */
+    public ResultModule() {
+        this(System.getProperty(URL_PROPERTY, DEFAULT_URL));
+    }
+
+    /**
+     * Creates a {@code ResultModule}.
+     *
+     * @param url the URL of the store
+     */
+    public ResultModule(String url) {
+        this.url = url;
+    }
+
+    @Provides
+    @Singleton
+    JdbcConnectionPool connectionPool() {
+        var pool = JdbcConnectionPool.create(url, "", "");
+        pool.setMaxConnections(MAX_CONNECTIONS);
+        return pool;
+    }
+
+    @Provides
+    @Singleton
+    ResultStore resultStore(Provider<ResultManager> manager) {
+        if (url.equals(MEMORY_URL)) {
+            return new InMemoryResultStore();
+        }
+        if (url.startsWith(JOURNAL_PREFIX)) {
+            try {
+                return new JournalResultStore(Path.of(url.substring(JOURNAL_PREFIX.length())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return manager.get();
+    }
+}
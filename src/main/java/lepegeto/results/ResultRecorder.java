@@ -0,0 +1,304 @@
+package lepegeto.results;
+
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stores {@link GameResult}s in the background, so recording a result never waits for the database.
+ *
+ * <p>Recorded results are queued, and a writer thread stores them with {@link ResultStore#insertAll} in
+ * batches of up to {@code batchSize} results, at the latest {@code maxDelay} after the first result of the batch
+ * was queued. {@link #flush} waits until everything recorded before it is stored, and {@link #close} stores
+ * what is left before stopping the writer. The queue is bounded; when it is full, {@link #record} waits for
+ * the writer.</p>
+ *
+ * <p>The depth of the queue and the duration of the flushes are exposed for monitoring. A batch that cannot
+ * be stored is retried a few times before it is dropped and the loss is logged.</p>
+ */
+@Singleton
+public class ResultRecorder implements AutoCloseable {
+
+    /**
+     * The default maximum number of results stored in one batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * The default maximum time a result waits in the queue.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * The default capacity of the queue.
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Queued to wake up the writer, so the current batch is stored at once.
+     */
+    private static final GameResult WAKE_UP = new GameResult();
+
+    private final ResultStore store;
+    private final Leaderboard leaderboard;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<GameResult> queue;
+    private final Thread writer;
+
+    private final Object lock = new Object();
+    private long recorded;
+    private long processed;
+    private long dropped;
+    private long flushes;
+    private long lastFlushNanos;
+    private long maxFlushNanos;
+    private long totalFlushNanos;
+    private volatile boolean closed;
+
+    /**
+     * Held for reading while a result is queued and for writing while the recorder is closed, so no result is
+     * queued after the writer may have seen the recorder closed with an empty queue.
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates a {@code ResultRecorder} with the default batch size, delay and capacity, and starts its writer.
+     *
+     * @param store       the store of the results
+     * @param leaderboard the leaderboard to add the results to
+     */
+    @Inject
+    public ResultRecorder(ResultStore store, Leaderboard leaderboard) {
+        this(store, leaderboard, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a {@code ResultRecorder} and starts its writer.
+     *
+     * @param store       the store of the results
+     * @param leaderboard the leaderboard to add the results to
+     * @param batchSize   the maximum number of results stored in one batch
+     * @param maxDelay    the maximum time a result waits in the queue
+     * @param capacity    the capacity of the queue
+     */
+    public ResultRecorder(ResultStore store, Leaderboard leaderboard, int batchSize, Duration maxDelay, int capacity) {
+        this.store = store;
+        this.leaderboard = leaderboard;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.writer = new Thread(this::write, "result-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Adds a result to the {@link Leaderboard} at once, and queues it to be stored.
+     *
+     * @param gameResult the result of a game
+     * @throws IllegalStateException if the recorder is closed or the thread is interrupted while the queue is full
+     */
+    public void record(GameResult gameResult) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The recorder is closed");
+            }
+            synchronized (lock) {
+                ++recorded;
+            }
+            leaderboard.add(gameResult);
+            queue.put(gameResult);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recording a result", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waits until every result recorded so far is stored or dropped.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        long target;
+        synchronized (lock) {
+            target = recorded;
+        }
+        queue.offer(WAKE_UP);
+        synchronized (lock) {
+            while (processed < target && writer.isAlive()) {
+                lock.wait(100);
+            }
+        }
+    }
+
+    /**
+     * Stores the queued results and stops the writer. Results recorded later are rejected.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        queue.offer(WAKE_UP);
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            Logger.error("Result writer did not finish, {} results not stored", getQueueDepth());
+        }
+    }
+
+    private void write() {
+        var batch = new ArrayList<GameResult>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                var first = queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                add(batch, first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (first != WAKE_UP && batch.size() < batchSize) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null || next == WAKE_UP) {
+                        break;
+                    }
+                    add(batch, next);
+                }
+                if (!batch.isEmpty()) {
+                    store(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Logger.warn("Result writer interrupted, {} results not stored", batch.size() + queue.size());
+        }
+    }
+
+    private static void add(List<GameResult> batch, GameResult gameResult) {
+        if (gameResult != WAKE_UP) {
+            batch.add(gameResult);
+        }
+    }
+
+    private void store(List<GameResult> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean stored = false;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !stored; ++attempt) {
+            try {
+                leaderboard.store(batch, () -> store.insertAll(batch));
+                stored = true;
+            } catch (RuntimeException e) {
+                Logger.warn(e, "Cannot store {} results, attempt {} of {}", batch.size(), attempt, MAX_ATTEMPTS);
+                if (attempt < MAX_ATTEMPTS) {
+                    Thread.sleep(100L << attempt);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!stored) {
+            leaderboard.drop(batch);
+            Logger.error("Dropped {} results", batch.size());
+        }
+        synchronized (lock) {
+            processed += batch.size();
+            if (!stored) {
+                dropped += batch.size();
+            }
+            ++flushes;
+            lastFlushNanos = elapsed;
+            maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+            totalFlushNanos += elapsed;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of results waiting to be stored, including the batch being written.
+     *
+     * @return the depth of the queue
+     */
+    public long getQueueDepth() {
+        synchronized (lock) {
+            return recorded - processed;
+        }
+    }
+
+    /**
+     * Returns the number of results that could not be stored.
+     *
+     * @return the number of dropped results
+     */
+    public long getDropped() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Returns the number of batches written.
+     *
+     * @return the number of flushes
+     */
+    public long getFlushes() {
+        synchronized (lock) {
+            return flushes;
+        }
+    }
+
+    /**
+     * Returns the duration of the last flush.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getLastFlushNanos() {
+        synchronized (lock) {
+            return lastFlushNanos;
+        }
+    }
+
+    /**
+     * Returns the duration of the longest flush.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getMaxFlushNanos() {
+        synchronized (lock) {
+            return maxFlushNanos;
+        }
+    }
+
+    /**
+     * Returns the average duration of the flushes.
+     *
+     * @return the duration in nanoseconds
+     */
+    public double getAverageFlushNanos() {
+        synchronized (lock) {
+            return flushes == 0 ? 0 : (double) totalFlushNanos / flushes;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package lepegeto.results;
+
+import org.tinylog.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the results of a {@link ResultManager} for a while, then rolls them up into daily summaries of every
+ * player, so the database and the queries stay small on installations running for years.
+ *
+ * <p>Results played before the start of the day {@code retention} ago are expired, so the summary of a day is
+ * written once all its results are expired. The best {@code keepBest} results are never expired, so the high
+ * scores are kept. The statistics and the ratings of the players are not changed, as they already count the
+ * expired results.</p>
+ *
+ * <p>The results are rolled up in batches of {@code batchSize}, the oldest first, each in a transaction of its
+ * own that reads the batch from the {@code lepegeto_created_id} index, adds it to the summaries and deletes it,
+ * so the job never holds locks for long and the results being recorded meanwhile are not held up. The job can
+ * be run once, or periodically in the background with {@link #schedule}. {@link #close} lets the batch being
+ * rolled up finish instead of interrupting it, as an interrupt inside H2's file I/O closes the database.</p>
+ */
+public class ResultRetention implements AutoCloseable {
+
+    /**
+     * The system property holding the number of days the results are kept by the application; results are kept
+     * forever if it is not set.
+     */
+    public static final String RETENTION_DAYS_PROPERTY = "lepegeto.results.retentionDays";
+
+    /**
+     * The default number of results rolled up in a transaction.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * The default time between two runs of the job.
+     */
+    public static final Duration DEFAULT_PERIOD = Duration.ofHours(1);
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * A player on a day.
+     */
+    private record Key(LocalDate day, String name) {
+    }
+
+    private final ResultManager manager;
+    private final Period retention;
+    private final int keepBest;
+    private final int batchSize;
+    private final Clock clock;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@code ResultRetention} keeping the results of the {@link Leaderboard}, with the default batch
+     * size.
+     *
+     * @param manager   the store of the results
+     * @param retention the time the results are kept
+     */
+    public ResultRetention(ResultManager manager, Period retention) {
+        this(manager, retention, Leaderboard.DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a {@code ResultRetention}.
+     *
+     * @param manager   the store of the results
+     * @param retention the time the results are kept
+     * @param keepBest  the number of the best results never expired
+     * @param batchSize the number of results rolled up in a transaction
+     * @param clock     the clock telling the current day, in the time zone of the days of the summaries
+     */
+    public ResultRetention(ResultManager manager, Period retention, int keepBest, int batchSize, Clock clock) {
+        if (retention.isNegative() || keepBest < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid retention policy");
+        }
+        this.manager = manager;
+        this.retention = retention;
+        this.keepBest = keepBest;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the time before which the results are expired, the start of the day {@code retention} ago.
+     *
+     * @return the time
+     */
+    public ZonedDateTime getCutoff() {
+        return LocalDate.now(clock).minus(retention).atStartOfDay(clock.getZone());
+    }
+
+    /**
+     * Rolls up every expired result.
+     *
+     * @return the number of results rolled up
+     */
+    public long run() {
+        var cutoff = getCutoff();
+        int keepSteps = Integer.MIN_VALUE;
+        long keepId = Long.MIN_VALUE;
+        if (keepBest > 0) {
+            var best = manager.fetchPage(null, keepBest);
+            if (best.size() < keepBest) {
+                return 0;
+            }
+            keepSteps = best.get(best.size() - 1).getSteps();
+            keepId = best.get(best.size() - 1).getId();
+        }
+        long rolled = 0;
+        int count;
+        do {
+            int steps = keepSteps;
+            long id = keepId;
+            count = manager.getJdbi().inTransaction(handle -> rollUp(handle.attach(ResultDao.class), cutoff, steps, id));
+            rolled += count;
+        } while (count == batchSize && !closed);
+        if (rolled > 0) {
+            Logger.info("{} results played before {} rolled up", rolled, cutoff);
+        }
+        return rolled;
+    }
+
+    private int rollUp(ResultDao dao, ZonedDateTime cutoff, int keepSteps, long keepId) {
+        var expired = dao.fetchExpired(cutoff, keepSteps, keepId, batchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        var summaries = new LinkedHashMap<Key, DailySummary>();
+        var ids = new ArrayList<Long>(expired.size());
+        for (var gameResult : expired) {
+            var day = gameResult.getCreated().withZoneSameInstant(clock.getZone()).toLocalDate();
+            add(summaries, day, gameResult.getPlayer1(), gameResult);
+            if (gameResult.getPlayer2() != null && !gameResult.getPlayer2().equals(gameResult.getPlayer1())) {
+                add(summaries, day, gameResult.getPlayer2(), gameResult);
+            }
+            ids.add(gameResult.getId());
+        }
+        if (!summaries.isEmpty()) {
+            dao.mergeSummaries(summaries.values());
+        }
+        dao.deleteResults(ids);
+        return expired.size();
+    }
+
+    private static void add(Map<Key, DailySummary> summaries, LocalDate day, String name, GameResult gameResult) {
+        if (name == null) {
+            return;
+        }
+        int win = name.equals(gameResult.getWinner()) ? 1 : 0;
+        var summary = summaries.get(new Key(day, name));
+        if (summary == null) {
+            summaries.put(new Key(day, name), new DailySummary(day, name, 1, win, gameResult.getSteps(),
+                    gameResult.getSteps(), gameResult.getCreated()));
+            return;
+        }
+        summary.setGames(summary.getGames() + 1);
+        summary.setWins(summary.getWins() + win);
+        summary.setMinSteps(Math.min(summary.getMinSteps(), gameResult.getSteps()));
+        summary.setTotalSteps(summary.getTotalSteps() + gameResult.getSteps());
+        if (gameResult.getCreated().isAfter(summary.getLastPlayed())) {
+            summary.setLastPlayed(gameResult.getCreated());
+        }
+    }
+
+    /**
+     * Runs the job periodically in the background, the first time at once.
+     *
+     * @param period the time between two runs
+     */
+    public synchronized void schedule(Duration period) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "result-retention");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                Logger.warn(e, "Cannot roll up the expired results");
+            }
+        }, 0, period.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the periodic runs, waiting for the batch being rolled up, so the store can be closed afterwards.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopped;
+        synchronized (this) {
+            closed = true;
+            stopped = scheduler;
+            scheduler = null;
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.shutdown();
+        try {
+            if (!stopped.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                Logger.error("Result retention did not finish its batch");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package lepegeto.results;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of the {@link GameResult}s, together with the statistics and the ratings of the players computed from
+ * them.
+ *
+ * <p>Every store gives the same answers for the same results: results are ordered by their steps, then by the id
+ * the store gives them, the statistics count every distinct player of a game once, and the ratings are updated
+ * by {@link Elo} in the order the results are stored. The implementations are:</p>
+ *
+ * <ul>
+ *     <li>{@link InMemoryResultStore}, holding everything on the heap, for tests and simulations</li>
+ *     <li>{@link ResultManager}, an H2 database accessed through Jdbi</li>
+ *     <li>{@link JournalResultStore}, an append-only memory-mapped file, for very high insert rates</li>
+ * </ul>
+ *
+ * <p>{@link ResultModule} chooses the store of the application. The implementations are thread-safe.</p>
+ */
+public interface ResultStore extends AutoCloseable {
+
+    /**
+     * Stores a result and sets the id given to it.
+     *
+     * @param gameResult the result of a game
+     */
+    void insert(GameResult gameResult);
+
+    /**
+     * Stores many results at once, all or none of them, and sets the ids given to them.
+     *
+     * @param gameResults the results of the games
+     */
+    void insertAll(List<GameResult> gameResults);
+
+    /**
+     * Returns a page of the results, the shortest games first.
+     *
+     * @param after the last result of the previous page, or {@code null} for the first page
+     * @param limit the maximum number of results
+     * @return the results of the page, fewer than {@code limit} on the last page
+     */
+    List<GameResult> fetchPage(GameResult after, int limit);
+
+    /**
+     * Returns the statistics of a player.
+     *
+     * @param name the name of the player
+     * @return the statistics, empty if the player has not played yet
+     */
+    Optional<PlayerStats> getPlayerStats(String name);
+
+    /**
+     * Returns the players who won the most games.
+     *
+     * @param limit the maximum number of players
+     * @return the statistics of the players, the most wins first, then by name
+     */
+    List<PlayerStats> fetchTopPlayers(int limit);
+
+    /**
+     * Returns the rating of a player.
+     *
+     * @param name the name of the player
+     * @return the rating, empty if the player has not played a rated game yet
+     */
+    Optional<Rating> getRating(String name);
+
+    /**
+     * Returns the best rated players.
+     *
+     * @param limit the maximum number of players
+     * @return the ratings, the highest first, then by name
+     */
+    List<Rating> fetchTopRatings(int limit);
+
+    /**
+     * Releases the resources of the store.
+     */
+    @Override
+    void close();
+}
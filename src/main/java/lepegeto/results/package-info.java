@@ -0,0 +1,4 @@
+/**
+ * Persistence of the results of the games.
+ */
+package lepegeto.results;
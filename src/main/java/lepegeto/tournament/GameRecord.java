@@ -0,0 +1,62 @@
+package lepegeto.tournament;
+
+import lepegeto.model.Player;
+
+/**
+ * The outcome of a game of a {@link Tournament}.
+ *
+ * @param game         the number of the game in the tournament
+ * @param seed         the seed of the random choices of the game
+ * @param firstPlayer  the color played by the first engine of the tournament
+ * @param winner       the winner, or {@code null} if the game was cut as a draw
+ * @param turns        the number of turns played, counted like {@link lepegeto.model.GameState#getNumberOfTurns}
+ * @param elapsedNanos the duration of the game in nanoseconds
+ */
+public record GameRecord(int game, long seed, Player firstPlayer, Player winner, int turns, long elapsedNanos) {
+
+    /**
+     * The header of the CSV lines of {@link #toCsv}.
+     */
+    public static final String CSV_HEADER = "game,seed,blue,red,winner,turns,millis";
+
+    /**
+     * Returns whether the first engine won the game.
+     *
+     * @return whether the winner is the color of the first engine
+     */
+    public boolean isFirstWinner() {
+        return winner != null && winner == firstPlayer;
+    }
+
+    /**
+     * Returns whether the second engine won the game.
+     *
+     * @return whether the winner is the color of the second engine
+     */
+    public boolean isSecondWinner() {
+        return winner != null && winner != firstPlayer;
+    }
+
+    /**
+     * Returns whether the game was a draw.
+     *
+     * @return whether the game was cut without a winner
+     */
+    public boolean isDraw() {
+        return winner == null;
+    }
+
+    /**
+     * Returns the CSV line of the game.
+     *
+     * @param first  the name of the first engine
+     * @param second the name of the second engine
+     * @return the fields of {@link #CSV_HEADER}, without a line separator
+     */
+    public String toCsv(String first, String second) {
+        String blue = firstPlayer == Player.BLUE ? first : second;
+        String red = firstPlayer == Player.BLUE ? second : first;
+        return String.format("%d,%d,%s,%s,%s,%d,%d", game, seed, blue, red,
+                winner == null ? "DRAW" : winner, turns, elapsedNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,145 @@
+package lepegeto.tournament;
+
+/**
+ * Running statistics of the games of a {@link Tournament}.
+ */
+public class Summary {
+
+    /**
+     * The z-score of the 95% confidence intervals.
+     */
+    public static final double Z_95 = 1.959964;
+
+    private final String first;
+    private final String second;
+    private int games;
+    private int firstWins;
+    private int secondWins;
+    private long totalTurns;
+    private long elapsedNanos;
+
+    /**
+     * Creates an empty {@code Summary}.
+     *
+     * @param first  the name of the first engine
+     * @param second the name of the second engine
+     */
+    public Summary(String first, String second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Adds the outcome of a game.
+     *
+     * @param record the outcome of the game
+     */
+    public void add(GameRecord record) {
+        ++games;
+        if (record.isFirstWinner()) {
+            ++firstWins;
+        } else if (record.isSecondWinner()) {
+            ++secondWins;
+        }
+        totalTurns += record.turns();
+    }
+
+    /**
+     * Sets the wall-clock duration of the tournament.
+     *
+     * @param elapsedNanos the duration in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of games.
+     *
+     * @return the number of games added
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games won by the first engine.
+     *
+     * @return the wins of the first engine
+     */
+    public int getFirstWins() {
+        return firstWins;
+    }
+
+    /**
+     * Returns the number of games won by the second engine.
+     *
+     * @return the wins of the second engine
+     */
+    public int getSecondWins() {
+        return secondWins;
+    }
+
+    /**
+     * Returns the number of drawn games.
+     *
+     * @return the games without a winner
+     */
+    public int getDraws() {
+        return games - firstWins - secondWins;
+    }
+
+    /**
+     * Returns the average length of the games.
+     *
+     * @return the average number of turns
+     */
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    /**
+     * Returns the throughput of the tournament.
+     *
+     * @return the number of games finished per second of wall-clock time
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the Wilson score interval of a proportion.
+     *
+     * @param successes the number of successes
+     * @param trials    the number of trials
+     * @param z         the z-score of the confidence level
+     * @return the lower and the upper bound of the interval
+     */
+    public static double[] wilson(int successes, int trials, double z) {
+        if (trials == 0) {
+            return new double[]{0, 1};
+        }
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        double center = (p + z2 / (2 * trials)) / (1 + z2 / trials);
+        double margin = z / (1 + z2 / trials) * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials));
+        return new double[]{Math.max(0, center - margin), Math.min(1, center + margin)};
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        sb.append(String.format("%s vs %s: %d games, %.2f games/s%n", first, second, games, getGamesPerSecond()));
+        appendWins(sb, first, firstWins);
+        appendWins(sb, second, secondWins);
+        sb.append(String.format("  draws: %d%n", getDraws()));
+        sb.append(String.format("  average turns: %.1f%n", getAverageTurns()));
+        return sb.toString();
+    }
+
+    private void appendWins(StringBuilder sb, String name, int wins) {
+        double[] interval = wilson(wins, games, Z_95);
+        sb.append(String.format("  %s: %d wins, %.1f%% (95%% CI %.1f%% - %.1f%%)%n", name, wins,
+                games == 0 ? 0 : 100.0 * wins / games, 100 * interval[0], 100 * interval[1]));
+    }
+}
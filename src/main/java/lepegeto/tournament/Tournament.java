@@ -0,0 +1,286 @@
+package lepegeto.tournament;
+
+import lepegeto.engine.Engine;
+import lepegeto.engine.MctsEngine;
+import lepegeto.engine.RandomEngine;
+import lepegeto.engine.SearchEngine;
+import lepegeto.engine.TranspositionTable;
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.tinylog.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays a match of many games between two engines without a user interface, in parallel on a thread pool.
+ *
+ * <p>The engines swap colors every game. Every game gets its own {@link SplittableRandom}, split from the seed
+ * of the tournament in the order of the games, which plays a few random opening moves so the games differ,
+ * and seeds the engines. The outcome of a game therefore only depends on the seed, the game number and the
+ * timing of time-limited searches, and not on the number of threads.</p>
+ *
+ * <p>A player wins when all of his figures are on his goal row, and loses when he has no legal move,
+ * like in the engines. Games reaching the turn limit are draws. The outcome of every game is written to a
+ * CSV stream as soon as it finishes.</p>
+ */
+public class Tournament {
+
+    /**
+     * The default number of random moves at the start of a game.
+     */
+    public static final int DEFAULT_OPENING_MOVES = 4;
+
+    /**
+     * The default number of turns after which a game is a draw.
+     */
+    public static final int DEFAULT_MAX_TURNS = 200;
+
+    /**
+     * The size of the transposition table of a search engine, in megabytes. Every game creates its own engines,
+     * so the table is kept small.
+     */
+    private static final int TABLE_SIZE = 4;
+
+    /**
+     * Creates a new engine for every game.
+     */
+    @FunctionalInterface
+    public interface EngineFactory {
+
+        /**
+         * Creates an engine.
+         *
+         * @param random the random numbers of the game, to seed the engine with
+         * @return a new engine
+         */
+        Engine create(SplittableRandom random);
+    }
+
+    private final String firstName;
+    private final EngineFactory first;
+    private final String secondName;
+    private final EngineFactory second;
+    private final int games;
+    private final int threads;
+    private final int openingMoves;
+    private final int maxTurns;
+    private final long seed;
+
+    /**
+     * Creates a {@code Tournament} with the default opening and turn limits.
+     *
+     * @param first   the specification of the first engine, as accepted by {@link #parse}
+     * @param second  the specification of the second engine
+     * @param games   the number of games
+     * @param threads the number of games played at the same time
+     * @param seed    the seed of the tournament
+     */
+    public Tournament(String first, String second, int games, int threads, long seed) {
+        this(first, parse(first), second, parse(second), games, threads, DEFAULT_OPENING_MOVES, DEFAULT_MAX_TURNS, seed);
+    }
+
+    /**
+     * Creates a {@code Tournament}.
+     *
+     * @param firstName    the name of the first engine
+     * @param first        the factory of the first engine
+     * @param secondName   the name of the second engine
+     * @param second       the factory of the second engine
+     * @param games        the number of games
+     * @param threads      the number of games played at the same time
+     * @param openingMoves the number of random moves at the start of a game
+     * @param maxTurns     the number of turns after which a game is a draw
+     * @param seed         the seed of the tournament
+     */
+    public Tournament(String firstName, EngineFactory first, String secondName, EngineFactory second,
+                      int games, int threads, int openingMoves, int maxTurns, long seed) {
+        this.firstName = firstName;
+        this.first = first;
+        this.secondName = secondName;
+        this.second = second;
+        this.games = games;
+        this.threads = threads;
+        this.openingMoves = openingMoves;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates the factory of an engine from its specification.
+     *
+     * <ul>
+     *     <li>{@code random}: a {@link RandomEngine}</li>
+     *     <li>{@code alphabeta:<millis>[:<nodes>]}: a {@link SearchEngine} with a time and optionally a node
+     *     budget per move</li>
+     *     <li>{@code mcts:<millis>[:<playouts>]}: a single-threaded {@link MctsEngine} with a time and optionally
+     *     a playout budget per move</li>
+     * </ul>
+     *
+     * @param spec the specification of the engine
+     * @return the factory of the engine
+     * @throws IllegalArgumentException if the specification is invalid
+     */
+    public static EngineFactory parse(String spec) {
+        String[] parts = spec.split(":");
+        try {
+            var time = parts.length > 1 ? Duration.ofMillis(Long.parseLong(parts[1])) : null;
+            long limit = parts.length > 2 ? Long.parseLong(parts[2]) : Long.MAX_VALUE;
+            switch (parts[0]) {
+                case "random":
+                    return random -> new RandomEngine(random.nextLong());
+                case "alphabeta":
+                    if (time != null) {
+                        return random -> new SearchEngine(time, limit, new TranspositionTable(TABLE_SIZE));
+                    }
+                    break;
+                case "mcts":
+                    if (time != null) {
+                        return random -> new MctsEngine(1, time, limit, MctsEngine.DEFAULT_PLAYOUT_LENGTH, random.nextLong());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid engine: %s", spec), e);
+        }
+        throw new IllegalArgumentException(String.format("Invalid engine: %s", spec));
+    }
+
+    /**
+     * Plays every game and writes their outcomes to a CSV stream in the order they finish.
+     *
+     * @param csv the stream of the outcomes, flushed after every game
+     * @return the statistics of the games
+     * @throws IOException          if the outcomes cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the games
+     */
+    public Summary run(Writer csv) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        var summary = new Summary(firstName, secondName);
+        var executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            var completion = new ExecutorCompletionService<GameRecord>(executor);
+            var random = new SplittableRandom(seed);
+            for (int game = 0; game < games; ++game) {
+                int number = game;
+                long gameSeed = random.nextLong();
+                completion.submit(() -> play(number, gameSeed));
+            }
+
+            csv.write(GameRecord.CSV_HEADER);
+            csv.write(System.lineSeparator());
+            for (int finished = 1; finished <= games; ++finished) {
+                var record = completion.take().get();
+                summary.add(record);
+                csv.write(record.toCsv(firstName, secondName));
+                csv.write(System.lineSeparator());
+                csv.flush();
+                if (finished % Math.max(1, games / 10) == 0) {
+                    Logger.info("{} of {} games finished", finished, games);
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        summary.setElapsedNanos(System.nanoTime() - start);
+        return summary;
+    }
+
+    /**
+     * Plays a game, the first engine playing Blue in even games.
+     *
+     * @param game the number of the game
+     * @param seed the seed of the game
+     * @return the outcome of the game
+     */
+    public GameRecord play(int game, long seed) {
+        long start = System.nanoTime();
+        var random = new SplittableRandom(seed);
+        var firstPlayer = game % 2 == 0 ? Player.BLUE : Player.RED;
+        var firstEngine = first.create(random.split());
+        var secondEngine = second.create(random.split());
+        try {
+            var board = new Board();
+            var moves = new int[MoveGenerator.MAX_MOVES];
+            var player = Player.BLUE;
+            Player winner = null;
+            int turns = 0;
+            while (turns < maxTurns) {
+                int move;
+                if (turns < openingMoves) {
+                    int count = MoveGenerator.generate(board, player, moves);
+                    move = count == 0 ? -1 : moves[random.nextInt(count)];
+                } else {
+                    move = (player == firstPlayer ? firstEngine : secondEngine).search(board, player).move();
+                }
+                if (move < 0) {
+                    winner = player.other();
+                    break;
+                }
+                board.apply(player, move);
+                ++turns;
+                if (board.isHome(player)) {
+                    winner = player;
+                    break;
+                }
+                player = player.other();
+            }
+            return new GameRecord(game, seed, firstPlayer, winner, turns, System.nanoTime() - start);
+        } finally {
+            close(firstEngine);
+            close(secondEngine);
+        }
+    }
+
+    private static void close(Engine engine) {
+        if (engine instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                Logger.warn(e, "Cannot close engine");
+            }
+        }
+    }
+
+    /**
+     * Plays a tournament and prints its summary.
+     *
+     * @param args the specifications of the two engines, then optionally the number of games, the number of
+     *             threads, the path of the CSV file and the seed
+     * @throws IOException          if the CSV file cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: Tournament <engine> <engine> [games] [threads] [csv] [seed]");
+            System.err.println("Engines: random, alphabeta:<millis>[:<nodes>], mcts:<millis>[:<playouts>]");
+            return;
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        var path = Path.of(args.length > 4 ? args[4] : "tournament.csv");
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        var tournament = new Tournament(args[0], args[1], games, threads, seed);
+        try (BufferedWriter csv = Files.newBufferedWriter(path)) {
+            System.out.print(tournament.run(csv));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Headless matches between computer players.
+ */
+package lepegeto.tournament;
@@ -5,34 +5,121 @@ import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Helper methods for XML reading and writing.
+ *
+ * <p>A {@link JAXBContext} is created once per class and shared by every thread. Marshallers and unmarshallers
+ * are not thread-safe, so every thread keeps its own, created on first use.</p>
  */
 public class JAXBHelper {
+
+    private static final Map<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<Class<?>, Unmarshaller>> UNMARSHALLERS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Returns the cached {@link JAXBContext} of a class, creating it on first use.
+     *
+     * @param clazz the class to be bound
+     * @return the context of {@code clazz}
+     * @throws JAXBException if the context cannot be created
+     */
+    public static JAXBContext getContext(Class<?> clazz) throws JAXBException {
+        var context = CONTEXTS.get(clazz);
+        if (context == null) {
+            context = JAXBContext.newInstance(clazz);
+            var previous = CONTEXTS.putIfAbsent(clazz, context);
+            if (previous != null) {
+                context = previous;
+            }
+        }
+        return context;
+    }
+
+    private static Marshaller getMarshaller(Class<?> clazz) throws JAXBException {
+        var marshallers = MARSHALLERS.get();
+        var marshaller = marshallers.get(clazz);
+        if (marshaller == null) {
+            marshaller = getContext(clazz).createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            marshallers.put(clazz, marshaller);
+        }
+        return marshaller;
+    }
+
+    private static Unmarshaller getUnmarshaller(Class<?> clazz) throws JAXBException {
+        var unmarshallers = UNMARSHALLERS.get();
+        var unmarshaller = unmarshallers.get(clazz);
+        if (unmarshaller == null) {
+            unmarshaller = getContext(clazz).createUnmarshaller();
+            unmarshallers.put(clazz, unmarshaller);
+        }
+        return unmarshaller;
+    }
+
     /**
      * Marshalls an object, and constructs a XML document and streams it to {@code os}.
+     * The stream is not closed.
      *
      * @param o  the object to be marshalled
      * @param os Output stream where the constructed XML will be outputed
      * @throws JAXBException if any error occurs while marshalling
      */
     public static void toXML(Object o, OutputStream os) throws JAXBException {
-        try {
-            JAXBContext context = JAXBContext.newInstance(o.getClass());
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
-            marshaller.marshal(o, os);
-        } catch (JAXBException e) {
-            throw e;
+        getMarshaller(o.getClass()).marshal(o, os);
+    }
+
+    /**
+     * Marshalls an object into a file through a buffered stream, which is closed afterwards.
+     *
+     * @param o    the object to be marshalled
+     * @param path the file to be written
+     * @throws JAXBException if any error occurs while marshalling
+     * @throws IOException   if the file cannot be written
+     */
+    public static void toXML(Object o, Path path) throws JAXBException, IOException {
+        try (var os = new BufferedOutputStream(Files.newOutputStream(path))) {
+            toXML(o, os);
         }
     }
 
     /**
      * Reads from {@code is} and marshalls an XML document to an object of type {@code T}.
+     * The stream is not closed.
      *
      * @param clazz the class of the output object
      * @param is    an input stream from which it will read the XML document
@@ -41,13 +128,102 @@ public class JAXBHelper {
      * @throws JAXBException if any error occurs while marshalling
      */
     public static <T> T fromXML(Class<T> clazz, InputStream is) throws JAXBException {
+        return clazz.cast(getUnmarshaller(clazz).unmarshal(is));
+    }
+
+    /**
+     * Reads an XML document from a file through a buffered stream, which is closed afterwards.
+     *
+     * @param clazz the class of the output object
+     * @param path  the file to be read
+     * @param <T>   The type of the output object
+     * @return The constructed object
+     * @throws JAXBException if any error occurs while unmarshalling
+     * @throws IOException   if the file cannot be read
+     */
+    public static <T> T fromXML(Class<T> clazz, Path path) throws JAXBException, IOException {
+        try (var is = new BufferedInputStream(Files.newInputStream(path))) {
+            return fromXML(clazz, is);
+        }
+    }
+
+    /**
+     * Writes many objects as the children of a single root element. The stream is not closed.
+     *
+     * @param objects the objects to be marshalled, all of the same class
+     * @param root    the name of the root element
+     * @param os      the stream to write to
+     * @throws JAXBException if any error occurs while marshalling
+     */
+    public static void toXMLStream(Iterable<?> objects, String root, OutputStream os) throws JAXBException {
         try {
-            JAXBContext context = JAXBContext.newInstance(clazz);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            return (T) unmarshaller.unmarshal(is);
-        } catch (JAXBException e) {
-            throw e;
+            var writer = OUTPUT_FACTORY.createXMLStreamWriter(os, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement(root);
+            for (var o : objects) {
+                var marshaller = getMarshaller(o.getClass());
+                marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+                try {
+                    marshaller.marshal(o, writer);
+                } finally {
+                    marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+                }
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new JAXBException(e);
         }
     }
 
+    /**
+     * Reads the children of the root element of an XML document one at a time with StAX, so only one of them is
+     * in memory at once. The returned stream must be closed, which also closes {@code is}.
+     *
+     * @param clazz the class of the children of the root element
+     * @param is    an input stream from which it will read the XML document
+     * @param <T>   The type of the output objects
+     * @return a lazy stream of the objects
+     * @throws JAXBException if the document cannot be opened
+     */
+    public static <T> Stream<T> fromXMLStream(Class<T> clazz, InputStream is) throws JAXBException {
+        XMLStreamReader reader;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(is);
+            reader.nextTag();
+            reader.next();
+        } catch (XMLStreamException e) {
+            throw new JAXBException(e);
+        }
+        var unmarshaller = getUnmarshaller(clazz);
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    int event = reader.getEventType();
+                    while (event != XMLStreamConstants.START_ELEMENT) {
+                        if (event == XMLStreamConstants.END_ELEMENT || event == XMLStreamConstants.END_DOCUMENT) {
+                            return false;
+                        }
+                        event = reader.next();
+                    }
+                    action.accept(unmarshaller.unmarshal(reader, clazz).getValue());
+                    return true;
+                } catch (XMLStreamException | JAXBException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+                is.close();
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 }
@@ -0,0 +1,55 @@
+package lepegeto.results;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Class representing the games of a player on a day, summarized from results no longer kept.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class DailySummary {
+
+    /**
+     * The day the games were played.
+     */
+    private LocalDate playedOn;
+
+    /**
+     * The name of the player.
+     */
+    private String name;
+
+    /**
+     * The number of games played.
+     */
+    private int games;
+
+    /**
+     * The number of games won.
+     */
+    private int wins;
+
+    /**
+     * The number of steps of the shortest game played.
+     */
+    private int minSteps;
+
+    /**
+     * The number of steps of all the games played.
+     */
+    private long totalSteps;
+
+    /**
+     * The timestamp of the last game played.
+     */
+    private ZonedDateTime lastPlayed;
+}
@@ -34,4 +34,9 @@ public class GameResult {
      */
     private ZonedDateTime created;
 
+    /**
+     * The identifier assigned by the database, {@code 0} before the result is stored.
+     */
+    private long id;
+
 }
\ No newline at end of file
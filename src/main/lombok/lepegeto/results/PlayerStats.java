@@ -0,0 +1,58 @@
+package lepegeto.results;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Class representing the aggregated results of a player.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class PlayerStats {
+
+    /**
+     * The name of the player.
+     */
+    private String name;
+
+    /**
+     * The number of games played.
+     */
+    private int games;
+
+    /**
+     * The number of games won.
+     */
+    private int wins;
+
+    /**
+     * The number of steps of the shortest game played.
+     */
+    private int minSteps;
+
+    /**
+     * The number of steps of all the games played.
+     */
+    private long totalSteps;
+
+    /**
+     * The timestamp of the last game played.
+     */
+    private ZonedDateTime lastPlayed;
+
+    /**
+     * Returns the average number of steps of the games played.
+     *
+     * @return the average steps, {@code 0} if no game was played
+     */
+    public double getAverageSteps() {
+        return games == 0 ? 0 : (double) totalSteps / games;
+    }
+}
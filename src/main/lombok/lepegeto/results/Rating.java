@@ -0,0 +1,32 @@
+package lepegeto.results;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Class representing the Elo rating of a player.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class Rating {
+
+    /**
+     * The name of the player.
+     */
+    private String name;
+
+    /**
+     * The rating of the player.
+     */
+    private double rating;
+
+    /**
+     * The number of rated games played.
+     */
+    private int games;
+}
@@ -0,0 +1,59 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsEngineTest {
+    private MctsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MctsEngine(2, Duration.ofSeconds(10), 20_000, MctsEngine.DEFAULT_PLAYOUT_LENGTH, 42);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void search_initialPosition() {
+        var state = new GameState();
+        var result = engine.search(state);
+
+        assertTrue(result.hasMove());
+        assertEquals(20_000, result.nodes());
+        assertTrue(MoveGenerator.isLegal(state.getBoard(), Player.BLUE, result.move()));
+    }
+
+    @Test
+    void search_findsWinningMove() {
+        long forbidden = new Board().getForbidden();
+        long blue = Board.bit(Board.cell(3, 0)) | Board.bit(Board.cell(3, 2)) | Board.bit(Board.cell(4, 1))
+                | Board.bit(Board.cell(4, 3)) | Board.bit(Board.cell(4, 4));
+        long red = Board.rowMask(0) & ~Board.bit(Board.cell(0, 4)) | Board.bit(Board.cell(2, 2));
+
+        var result = engine.search(new Board(blue, red, forbidden), Player.BLUE);
+
+        assertEquals(Move.of(Board.cell(3, 0), Board.cell(3, 2), Direction.SOUTH), result.move());
+        assertTrue(result.score() > 900);
+    }
+
+    @Test
+    void search_withoutMoves() {
+        var board = new Board(Board.bit(0), Board.rowMask(4), new Board().getForbidden());
+
+        assertFalse(engine.search(board, Player.BLUE).hasMove());
+    }
+}
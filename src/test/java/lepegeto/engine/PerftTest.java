@@ -0,0 +1,45 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.GameState;
+import lepegeto.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @Test
+    void count_matchesReferenceRules() {
+        var state = new GameState();
+        for (int depth = 0; depth <= 3; ++depth) {
+            assertEquals(Perft.countReference(state, depth), Perft.countSequential(new Board(), Player.BLUE, depth));
+        }
+        assertEquals(new GameState(), state);
+    }
+
+    @Test
+    void count_parallelAndCachedMatchSequential() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var parallel = new Perft(pool, 3, 0);
+            var cached = new Perft(pool, 1, 1);
+            for (int depth = 1; depth <= 5; ++depth) {
+                long expected = Perft.countSequential(new Board(), Player.BLUE, depth);
+                assertEquals(expected, parallel.count(new Board(), Player.BLUE, depth));
+                assertEquals(expected, cached.count(new Board(), Player.BLUE, depth));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void divide() {
+        var lines = new Perft().divide(new Board(), Player.BLUE, 1).lines().count();
+
+        assertEquals(5, lines);
+    }
+}
@@ -0,0 +1,77 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchEngineTest {
+
+    private static long cells(int... cells) {
+        long mask = 0;
+        for (int cell : cells) {
+            mask |= Board.bit(cell);
+        }
+        return mask;
+    }
+
+    @Test
+    void search_initialPosition() {
+        var engine = new SearchEngine(Duration.ofMillis(100));
+        var state = new GameState();
+        var result = engine.search(state);
+
+        assertTrue(result.hasMove());
+        assertTrue(result.depth() >= 2);
+        assertTrue(MoveGenerator.isLegal(state.getBoard(), Player.BLUE, result.move()));
+        assertEquals(new GameState().getBoard(), state.getBoard());
+    }
+
+    @Test
+    void search_findsWinningMove() {
+        long forbidden = new Board().getForbidden();
+        long blue = cells(Board.cell(3, 0), Board.cell(3, 2), Board.cell(4, 1), Board.cell(4, 3), Board.cell(4, 4));
+        long red = cells(Board.cell(0, 0), Board.cell(0, 1), Board.cell(0, 2), Board.cell(0, 3), Board.cell(2, 2));
+        var board = new Board(blue, red, forbidden);
+
+        var result = new SearchEngine(Duration.ofSeconds(5)).search(board, Player.BLUE);
+
+        assertEquals(Move.of(Board.cell(3, 0), Board.cell(3, 2), Direction.SOUTH), result.move());
+        assertEquals(Evaluator.WIN - 1, result.score());
+        assertTrue(result.isDecisive());
+    }
+
+    @Test
+    void search_withoutMoves() {
+        long forbidden = new Board().getForbidden();
+        var board = new Board(cells(Board.cell(0, 0)), Board.rowMask(4), forbidden);
+
+        var result = new SearchEngine(Duration.ofMillis(10)).search(board, Player.BLUE);
+
+        assertFalse(result.hasMove());
+    }
+
+    @Test
+    void search_respectsNodeLimit() {
+        var result = new SearchEngine(Duration.ofSeconds(10), 5_000).search(new Board(), Player.RED);
+
+        assertTrue(result.hasMove());
+        assertTrue(result.nodes() <= 5_000);
+    }
+
+    @Test
+    void distance() {
+        assertEquals(0, Evaluator.distance(Player.BLUE, Board.cell(4, 2)));
+        assertEquals(4, Evaluator.distance(Player.BLUE, Board.cell(0, 1)));
+        assertEquals(4, Evaluator.distance(Player.RED, Board.cell(4, 1)));
+        assertEquals(Evaluator.UNREACHABLE, Evaluator.distance(Player.RED, Board.cell(1, 1)));
+        assertEquals(0, Evaluator.evaluate(new Board(), Player.BLUE));
+    }
+}
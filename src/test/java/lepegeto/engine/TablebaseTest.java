@@ -0,0 +1,132 @@
+package lepegeto.engine;
+
+import lepegeto.model.Board;
+import lepegeto.model.MoveGenerator;
+import lepegeto.model.Player;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+
+    private static final TablebaseIndex INDEX = new TablebaseIndex(2);
+
+    private static byte[] values;
+
+    @BeforeAll
+    static void solve() throws InterruptedException {
+        values = new TablebaseSolver(INDEX, 3).solve();
+    }
+
+    @Test
+    void index_roundTrips() {
+        assertEquals(210L * 171 * 2, INDEX.size());
+        for (long i = 0; i < INDEX.size(); ++i) {
+            var board = INDEX.board(i);
+            assertTrue(INDEX.contains(board));
+            assertEquals(i, INDEX.index(board, TablebaseIndex.player(i)));
+        }
+    }
+
+    @Test
+    void index_rejectsPositionsOutsideOfIt() {
+        assertFalse(INDEX.contains(new Board()));
+        assertFalse(INDEX.contains(new Board(Board.bit(0) | Board.bit(6), Board.bit(20) | Board.bit(21),
+                TablebaseIndex.FORBIDDEN)));
+        assertThrows(IllegalArgumentException.class, () -> new TablebaseIndex(11));
+    }
+
+    @Test
+    void solve_isConsistentWithTheMoves() {
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        int decided = 0;
+        for (long i = 0; i < INDEX.size(); ++i) {
+            var board = INDEX.board(i);
+            var player = TablebaseIndex.player(i);
+            int value = values[(int) i] & 0xff;
+            int count = MoveGenerator.generate(board, player, moves);
+            if (board.isHome(player.other()) || count == 0) {
+                assertEquals(1, value);
+                ++decided;
+                continue;
+            }
+
+            int fastestWin = Integer.MAX_VALUE;
+            int slowestLoss = 0;
+            boolean draw = false;
+            for (int m = 0; m < count; ++m) {
+                board.apply(player, moves[m]);
+                int child = values[(int) INDEX.index(board, player.other())] & 0xff;
+                board.apply(player, moves[m]);
+                if (Tablebase.isLoss(child)) {
+                    fastestWin = Math.min(fastestWin, child + 1);
+                } else if (Tablebase.isWin(child)) {
+                    slowestLoss = Math.max(slowestLoss, child + 1);
+                } else {
+                    draw = true;
+                }
+            }
+            if (fastestWin != Integer.MAX_VALUE) {
+                assertEquals(fastestWin, value);
+            } else if (draw) {
+                assertEquals(Tablebase.DRAW, value);
+            } else {
+                assertEquals(slowestLoss, value);
+            }
+            if (value != Tablebase.DRAW) {
+                ++decided;
+            }
+        }
+        assertTrue(decided > 0);
+    }
+
+    @Test
+    void solve_isDeterministic() throws InterruptedException {
+        assertArrayEquals(values, new TablebaseSolver(INDEX, 1).solve());
+    }
+
+    @Test
+    void open_readsWrittenValues(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("2.tb");
+        Tablebase.write(path, INDEX, values);
+
+        try (var tablebase = Tablebase.open(path)) {
+            assertEquals(2, tablebase.getIndex().getPieces());
+            for (long i = 0; i < INDEX.size(); i += 97) {
+                assertEquals(values[(int) i] & 0xff, tablebase.probe(INDEX.board(i), TablebaseIndex.player(i)));
+            }
+        }
+    }
+
+    @Test
+    void open_rejectsOtherFiles(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("empty.tb");
+        Files.write(path, new byte[Tablebase.HEADER_SIZE]);
+
+        assertThrows(IOException.class, () -> Tablebase.open(path));
+    }
+
+    @Test
+    void search_playsTheFastestWin(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("2.tb");
+        Tablebase.write(path, INDEX, values);
+        var board = new Board(Board.bit(Board.cell(3, 0)) | Board.bit(Board.cell(3, 2)),
+                Board.bit(Board.cell(2, 0)) | Board.bit(Board.cell(2, 4)), TablebaseIndex.FORBIDDEN);
+
+        try (var tablebase = Tablebase.open(path)) {
+            var result = tablebase.search(board, Player.BLUE);
+
+            assertEquals(Tablebase.score(2), result.score());
+            assertTrue(result.isDecisive());
+            board.apply(Player.BLUE, result.move());
+            assertTrue(board.isHome(Player.BLUE));
+            assertTrue(Tablebase.isLoss(tablebase.probe(board, Player.RED)));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package lepegeto.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void storeAndProbe() {
+        var table = new TranspositionTable(1);
+        long key = 0x1234_5678_9abc_def0L;
+
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, 1234, -Evaluator.WIN + 3, 7, TranspositionTable.LOWER);
+        long entry = table.probe(key);
+
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(1234, TranspositionTable.move(entry));
+        assertEquals(-Evaluator.WIN + 3, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(key ^ 1L << 40));
+
+        table.store(key, SearchResult.NO_MOVE, 0, 0, TranspositionTable.EXACT);
+        assertEquals(SearchResult.NO_MOVE, TranspositionTable.move(table.probe(key)));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(key));
+    }
+
+    @Test
+    void concurrentWriters_neverReturnForeignEntries() throws Exception {
+        var table = new TranspositionTable(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; ++thread) {
+                long seed = thread;
+                futures.add(executor.submit(() -> {
+                    var random = new SplittableRandom(seed);
+                    for (int i = 0; i < 200_000; ++i) {
+                        long key = random.nextLong(1 << 16);
+                        int score = (int) (key % 1000);
+                        table.store(key, (int) (key & 0x1fff), score, 1, TranspositionTable.EXACT);
+                        long entry = table.probe(key);
+                        if (entry != TranspositionTable.MISS) {
+                            assertEquals(score, TranspositionTable.score(entry));
+                            assertEquals(key & 0x1fff, TranspositionTable.move(entry));
+                        }
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
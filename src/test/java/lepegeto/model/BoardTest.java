@@ -0,0 +1,113 @@
+package lepegeto.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+    }
+
+    @Test
+    void cell() {
+        assertEquals(0, Board.cell(0, 0));
+        assertEquals(7, Board.cell(1, 2));
+        assertEquals(24, Board.cell(4, 4));
+        assertEquals(-1, Board.cell(-1, 0));
+        assertEquals(-1, Board.cell(0, 5));
+        assertEquals(-1, Board.cell(new Position(5, 5)));
+        assertEquals(1, Board.row(7));
+        assertEquals(2, Board.col(7));
+    }
+
+    @Test
+    void rowMask() {
+        assertEquals(0b11111L, Board.rowMask(0));
+        assertEquals(0b11111L << 20, Board.rowMask(4));
+        assertEquals(0, Board.rowMask(-1));
+        assertEquals(0, Board.rowMask(6));
+    }
+
+    @Test
+    void initialBoard() {
+        assertEquals(Board.rowMask(0), board.getBlue());
+        assertEquals(Board.rowMask(4), board.getRed());
+        assertEquals(4, Long.bitCount(board.getForbidden()));
+        assertEquals(Board.CELLS - 14, Long.bitCount(board.free()));
+        assertEquals(new GameState().getBoard(), board);
+    }
+
+    @Test
+    void owner() {
+        assertEquals(Owner.BLUE, board.owner(Board.cell(0, 3)));
+        assertEquals(Owner.RED, board.owner(Board.cell(4, 0)));
+        assertEquals(Owner.FORBIDDEN, board.owner(Board.cell(3, 3)));
+        assertEquals(Owner.NONE, board.owner(Board.cell(2, 2)));
+        assertTrue(board.isOccupiedBy(Player.BLUE, Board.cell(0, 0)));
+        assertFalse(board.isOccupiedBy(Player.RED, Board.cell(0, 0)));
+        assertFalse(board.isFree(Board.cell(1, 1)));
+        assertTrue(board.isFree(Board.cell(1, 0)));
+    }
+
+    @Test
+    void move() {
+        board.move(Player.BLUE, Board.cell(0, 0), Board.cell(1, 0));
+
+        assertTrue(board.isFree(Board.cell(0, 0)));
+        assertTrue(board.isBlue(Board.cell(1, 0)));
+        assertEquals(5, Long.bitCount(board.getBlue()));
+    }
+
+    @Test
+    void getKey() {
+        var initialKey = board.getKey();
+        board.move(Player.BLUE, Board.cell(0, 0), Board.cell(1, 0));
+        board.apply(Player.RED, Move.of(Board.cell(4, 0), Board.cell(4, 2), Direction.NORTH));
+
+        assertNotEquals(initialKey, board.getKey());
+        assertEquals(new Board(board.getBlue(), board.getRed(), board.getForbidden()).getKey(), board.getKey());
+
+        board.apply(Player.RED, Move.of(Board.cell(4, 0), Board.cell(4, 2), Direction.NORTH));
+        board.move(Player.BLUE, Board.cell(1, 0), Board.cell(0, 0));
+        assertEquals(initialKey, board.getKey());
+    }
+
+    @Test
+    void isHome() {
+        assertFalse(board.isHome(Player.BLUE));
+        assertFalse(board.isHome(Player.RED));
+
+        var finished = new Board(Board.rowMask(4), Board.rowMask(0), board.getForbidden());
+        assertTrue(finished.isHome(Player.BLUE));
+        assertTrue(finished.isHome(Player.RED));
+        assertFalse(finished.isAllIn(Player.BLUE, Board.rowMask(6)));
+    }
+
+    @Test
+    void of() {
+        var positions = new Position[]{new Position(2, 2)};
+        assertEquals(Board.bit(12), Board.of(positions, new Position[0], new Position[0]).getBlue());
+        assertThrows(IllegalArgumentException.class,
+                () -> Board.of(new Position[]{new Position(-1, 0)}, new Position[0], new Position[0]));
+    }
+
+    @Test
+    void testClone() {
+        var clone = board.clone();
+        assertEquals(board, clone);
+        assertNotSame(board, clone);
+
+        clone.move(Player.RED, Board.cell(4, 0), Board.cell(3, 0));
+        assertNotEquals(board, clone);
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("BBBBB/.#.#./...../.#.#./RRRRR", board.toString());
+    }
+}
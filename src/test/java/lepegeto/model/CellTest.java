@@ -0,0 +1,57 @@
+package lepegeto.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellTest {
+
+    @Test
+    void of() {
+        var cell = Cell.of(2, 3);
+
+        assertSame(cell, Cell.of(2, 3));
+        assertSame(cell, Cell.of(Board.cell(2, 3)));
+        assertSame(cell, Cell.ofOrNull(new Position(2, 3)));
+        assertEquals(2, cell.getRow());
+        assertEquals(3, cell.getCol());
+        assertEquals(Board.bit(13), cell.getBit());
+        assertEquals(new Position(2, 3), cell.toPosition());
+        assertTrue(cell.isAt(new Position(2, 3)));
+    }
+
+    @Test
+    void of_offBoard() {
+        assertNull(Cell.ofOrNull(-1, 0));
+        assertNull(Cell.ofOrNull(new Position(0, 5)));
+        assertThrows(IllegalArgumentException.class, () -> Cell.of(5, 0));
+        assertThrows(IllegalArgumentException.class, () -> Cell.of(25));
+    }
+
+    @Test
+    void all() {
+        assertEquals(Board.CELLS, Cell.all().size());
+        for (int i = 0; i < Board.CELLS; ++i) {
+            assertSame(Cell.of(i), Cell.all().get(i));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> Cell.all().set(0, null));
+    }
+
+    @Test
+    void neighbour_matchesPositionTargets() {
+        for (var cell : Cell.all()) {
+            for (var direction : Direction.values()) {
+                var target = cell.toPosition().getTarget(direction);
+                var neighbour = cell.neighbour(direction);
+
+                assertSame(Cell.ofOrNull(target), neighbour);
+                assertEquals(neighbour == null ? -1 : neighbour.getIndex(),
+                        Cell.neighbour(cell.getIndex(), direction.ordinal()));
+                if (neighbour != null) {
+                    assertSame(direction, cell.directionTo(neighbour));
+                }
+            }
+        }
+        assertNull(Cell.of(0, 0).directionTo(Cell.of(2, 2)));
+    }
+}
@@ -2,6 +2,7 @@ package lepegeto.model;
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -23,4 +24,15 @@ class DirectionTest {
     void of_shouldThrowIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () -> Direction.of(0, 0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void ofOrNull() {
+        for (var direction : Direction.values()) {
+            assertSame(direction, Direction.ofOrNull(direction.getRowChange(), direction.getColChange()));
+            assertSame(direction, Direction.byOrdinal(direction.ordinal()));
+        }
+        assertNull(Direction.ofOrNull(0, 0));
+        assertNull(Direction.ofOrNull(2, 0));
+        assertNull(Direction.ofOrNull(-1, -7));
+    }
+}
@@ -0,0 +1,144 @@
+package lepegeto.model;
+
+import lepegeto.engine.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordingTest {
+
+    static GameRecording randomGame(SplittableRandom random, int plies) {
+        var start = new GameState();
+        start.getPlayers().put(Player.BLUE, "blue");
+        start.getPlayers().put(Player.RED, "red");
+        var board = start.getBoard();
+        var player = start.getCurrentPlayer();
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        var played = new int[plies];
+        int length = 0;
+        Player winner = null;
+        while (length < plies) {
+            int count = MoveGenerator.generate(board, player, moves);
+            if (count == 0) {
+                winner = player.other();
+                break;
+            }
+            played[length++] = moves[random.nextInt(count)];
+            board.apply(player, played[length - 1]);
+            if (board.isHome(player)) {
+                winner = player;
+                break;
+            }
+            player = player.other();
+        }
+        return new GameRecording(start, Arrays.copyOf(played, length), winner != null, winner);
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        var random = new SplittableRandom(1);
+        var games = new ArrayList<GameRecording>();
+        for (int i = 0; i < 20; ++i) {
+            games.add(randomGame(random, 1 + random.nextInt(100)));
+        }
+        games.add(new GameRecording(new GameState(), new int[0], true, null));
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordingWriter(bytes)) {
+            for (var game : games) {
+                writer.write(game);
+            }
+        }
+
+        try (var reader = new GameRecordingReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(games, reader.stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void append_isReadMoveByMove(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("games.lgr");
+        var game = randomGame(new SplittableRandom(2), 30);
+        try (var writer = new GameRecordingWriter(path)) {
+            writer.begin(game.getStart());
+            for (int ply = 0; ply < game.length(); ++ply) {
+                writer.append(game.getMove(ply));
+                try (var reader = new GameRecordingReader(path)) {
+                    var read = reader.read();
+                    assertFalse(read.isFinished());
+                    assertEquals(ply + 1, read.length());
+                    assertNull(reader.read());
+                }
+            }
+            writer.end(game.getWinner());
+        }
+        try (var reader = new GameRecordingReader(path)) {
+            assertEquals(new GameRecording(game.getStart(), game.getMoves(), true, game.getWinner()), reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void append_afterInterruptedGame(@TempDir Path dir) throws IOException {
+        var path = dir.resolve("games.lgr");
+        var game = randomGame(new SplittableRandom(3), 40);
+        try (var writer = new GameRecordingWriter(path)) {
+            writer.begin(game.getStart());
+            writer.append(game.getMove(0));
+            writer.append(game.getMove(1));
+        }
+        try (var writer = new GameRecordingWriter(path)) {
+            writer.write(game);
+        }
+        try (var reader = new GameRecordingReader(path)) {
+            var interrupted = reader.read();
+            assertFalse(interrupted.isFinished());
+            assertArrayEquals(Arrays.copyOf(game.getMoves(), 2), interrupted.getMoves());
+            assertEquals(game, reader.read());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void writer_checksState() {
+        var writer = new GameRecordingWriter(new ByteArrayOutputStream());
+        assertThrows(IllegalStateException.class, () -> writer.append(0));
+        assertThrows(IllegalStateException.class, () -> writer.end(null));
+        assertDoesNotThrow(() -> writer.begin(new GameState()));
+        assertThrows(IllegalStateException.class, () -> writer.begin(new GameState()));
+    }
+
+    @Test
+    void writer_rejectsInvalidMoves() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordingWriter(bytes)) {
+            writer.begin(new GameState());
+            assertThrows(IllegalArgumentException.class, () -> writer.append(SearchResult.NO_MOVE));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(0x2000));
+            writer.end(Player.BLUE);
+            assertThrows(IllegalArgumentException.class, () -> writer.write(
+                    new GameRecording(new GameState(), new int[]{SearchResult.NO_MOVE}, false, null)));
+        }
+        try (var reader = new GameRecordingReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            var game = reader.read();
+            assertEquals(0, game.length());
+            assertEquals(Player.BLUE, game.getWinner());
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void read_rejectsGarbage() {
+        var reader = new GameRecordingReader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6}));
+        assertThrows(IOException.class, reader::read);
+    }
+}
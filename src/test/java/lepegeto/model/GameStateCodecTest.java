@@ -0,0 +1,111 @@
+package lepegeto.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateCodecTest {
+
+    private static GameState playedState() {
+        var state = new GameState();
+        state.getPlayers().put(Player.BLUE, "Anna");
+        state.getPlayers().put(Player.RED, "B\u00e9la");
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < 3; ++i) {
+            MoveGenerator.generate(state.getBoard(), state.getCurrentPlayer(), moves);
+            state.makeMove(moves[i]);
+        }
+        return state;
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.getBoard().getForbidden(), actual.getBoard().getForbidden());
+        assertEquals(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+        assertEquals(expected.getNumberOfTurns(), actual.getNumberOfTurns());
+        assertEquals(expected.getPlayers(), actual.getPlayers());
+        assertEquals(expected.getKey(), actual.getKey());
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        var state = playedState();
+        assertSameState(state, GameStateCodec.decode(GameStateCodec.encode(state, false)));
+        assertSameState(state, GameStateCodec.decode(GameStateCodec.encode(state, true)));
+    }
+
+    @Test
+    void encode_size() {
+        var state = new GameState();
+        assertEquals(GameStateCodec.MIN_SIZE, GameStateCodec.encode(state, false).length);
+        assertEquals(GameStateCodec.MIN_SIZE + GameStateCodec.CRC_SIZE, GameStateCodec.encode(state, true).length);
+    }
+
+    @Test
+    void decode_isPlayable() throws IOException {
+        var state = playedState();
+        var decoded = GameStateCodec.decode(GameStateCodec.encode(state, true));
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generate(state.getBoard(), state.getCurrentPlayer(), moves);
+        state.makeMove(moves[0]);
+        decoded.makeMove(moves[0]);
+        assertSameState(state, decoded);
+    }
+
+    @Test
+    void decode_detectsCorruption() {
+        var bytes = GameStateCodec.encode(playedState(), true);
+        for (int i = 0; i < bytes.length; ++i) {
+            var corrupt = bytes.clone();
+            corrupt[i] ^= 0x10;
+            assertThrows(IOException.class, () -> GameStateCodec.decode(corrupt));
+        }
+        assertThrows(IOException.class, () -> GameStateCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IOException.class, () -> GameStateCodec.decode(new byte[0]));
+    }
+
+    @Test
+    void decode_rejectsImpossibleBoards() throws IOException {
+        var sixBlue = new Board(Board.rowMask(0) | Board.bit(Board.cell(2, 2)), Board.rowMask(Board.SIZE - 1), Board.FORBIDDEN);
+        var moved = new Board(Board.rowMask(0), Board.rowMask(Board.SIZE - 1), Board.bit(Board.cell(2, 2)));
+        for (var board : new Board[]{sixBlue, moved}) {
+            var state = new GameState(board, Player.BLUE, 0, new HashMap<>());
+            for (boolean crc : new boolean[]{false, true}) {
+                var bytes = GameStateCodec.encode(state, crc);
+                assertThrows(IOException.class, () -> GameStateCodec.decode(bytes));
+            }
+        }
+        var fewer = new Board(Board.bit(Board.cell(0, 0)), Board.bit(Board.cell(4, 4)), Board.FORBIDDEN);
+        assertEquals(fewer, GameStateCodec.decode(GameStateCodec.encode(
+                new GameState(fewer, Player.RED, 3, new HashMap<>()), false)).getBoard());
+    }
+
+    @Test
+    void decode_rejectsUnknownVersion() {
+        var bytes = GameStateCodec.encode(new GameState(), false);
+        bytes[4] = 2;
+        assertThrows(IOException.class, () -> GameStateCodec.decode(bytes));
+    }
+
+    @Test
+    void saveAndLoad_byExtension(@TempDir Path dir) throws Exception {
+        var state = playedState();
+        var binary = dir.resolve("game" + GameStateCodec.EXTENSION);
+        var xml = dir.resolve("game.xml");
+        GameStateCodec.save(state, binary);
+        GameStateCodec.save(state, xml);
+
+        assertTrue(GameStateCodec.isBinary(binary));
+        assertFalse(GameStateCodec.isBinary(xml));
+        assertTrue(Files.size(binary) < Files.size(xml) / 10);
+        assertSameState(state, GameStateCodec.load(binary));
+        assertSameState(state, GameStateCodec.load(xml));
+    }
+}
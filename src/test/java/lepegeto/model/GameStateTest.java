@@ -3,6 +3,9 @@ package lepegeto.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameStateTest {
@@ -248,6 +251,223 @@ class GameStateTest {
         assertNotSame(state, clone);
     }
 
+    @Test
+    void trySelect() {
+        assertEquals(MoveResult.NOT_OWN_FIGURE, state.trySelect(new Position(4, 0)));
+        assertEquals(MoveResult.NOT_OWN_FIGURE, state.trySelect(new Position(-1, 0)));
+        assertEquals(MoveResult.OK, state.trySelect(new Position(0, 0)));
+        assertEquals(MoveResult.ALREADY_SELECTED, state.trySelect(new Position(0, 0)));
+        assertEquals(MoveResult.OK, state.trySelect(new Position(0, 1)));
+        assertEquals(MoveResult.TOO_MANY_SELECTED, state.trySelect(new Position(0, 2)));
+        assertEquals(2, state.getSelected().size());
+    }
+
+    @Test
+    void tryAddGhost() {
+        assertEquals(MoveResult.TARGET_NOT_FREE, state.tryAddGhost(new Position(0, 0)));
+        assertEquals(MoveResult.TARGET_NOT_FREE, state.tryAddGhost(new Position(1, 1)));
+        assertEquals(MoveResult.TARGET_NOT_FREE, state.tryAddGhost(new Position(-1, 0)));
+        assertEquals(MoveResult.OK, state.tryAddGhost(new Position(1, 0)));
+        assertEquals(MoveResult.ALREADY_TARGETED, state.tryAddGhost(new Position(1, 0)));
+        assertEquals(MoveResult.OK, state.tryAddGhost(new Position(1, 2)));
+        assertEquals(MoveResult.TOO_MANY_TARGETS, state.tryAddGhost(new Position(1, 4)));
+    }
+
+    @Test
+    void tryEndTurn() {
+        assertEquals(MoveResult.INCOMPLETE_MOVE, state.tryEndTurn());
+        state.trySelect(new Position(0, 0));
+        state.trySelect(new Position(0, 2));
+        state.tryAddGhost(new Position(1, 0));
+        assertEquals(MoveResult.INCOMPLETE_MOVE, state.tryEndTurn());
+        state.tryAddGhost(new Position(2, 2));
+        assertEquals(MoveResult.DIRECTION_MISMATCH, state.tryEndTurn());
+        assertEquals(Player.BLUE, state.getCurrentPlayer());
+
+        state.getGhosts().set(1, new Position(1, 2));
+        assertEquals(MoveResult.OK, state.tryEndTurn());
+        assertEquals(Player.RED, state.getCurrentPlayer());
+        assertTrue(state.isBlue(new Position(1, 2)));
+        assertTrue(state.getSelected().isEmpty());
+    }
+
+    @Test
+    void tryEndTurn_winsWhenMoverIsHome() {
+        var board = new Board(Board.bit(Board.cell(4, 1)) | Board.bit(Board.cell(4, 2)) | Board.bit(Board.cell(4, 3))
+                | Board.bit(Board.cell(3, 0)) | Board.bit(Board.cell(3, 4)),
+                Board.rowMask(2), new Board().getForbidden());
+        state = new GameState(board, Player.BLUE, 10, new HashMap<>());
+        state.trySelect(new Position(3, 0));
+        state.trySelect(new Position(3, 4));
+        state.tryAddGhost(new Position(4, 0));
+        state.tryAddGhost(new Position(4, 4));
+
+        assertEquals(MoveResult.WIN, state.tryEndTurn());
+        assertEquals(Player.RED, state.getCurrentPlayer());
+        assertFalse(state.isCurrentPlayerWinner());
+    }
+
+    @Test
+    void tryEndTurn_agreesWithBoardIsHome() {
+        var random = new SplittableRandom(7);
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        int wins = 0;
+        for (int game = 0; game < 200; ++game) {
+            state = new GameState();
+            for (int ply = 0; ply < 400; ++ply) {
+                var mover = state.getCurrentPlayer();
+                int count = MoveGenerator.generate(state.getBoard(), mover, moves);
+                if (count == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(count)];
+                var expected = state.getBoard().clone();
+                expected.apply(mover, move);
+
+                int delta = Move.delta(Move.directionIndex(move));
+                for (int cell : new int[]{Move.first(move), Move.second(move)}) {
+                    assertEquals(MoveResult.OK, state.trySelect(new Position(Board.row(cell), Board.col(cell))));
+                }
+                for (int cell : new int[]{Move.first(move), Move.second(move)}) {
+                    int target = cell + delta;
+                    assertEquals(MoveResult.OK, state.tryAddGhost(new Position(Board.row(target), Board.col(target))));
+                }
+                var result = state.tryEndTurn();
+
+                assertEquals(expected, state.getBoard());
+                assertEquals(expected.isHome(mover), result == MoveResult.WIN);
+                if (result == MoveResult.WIN) {
+                    ++wins;
+                    break;
+                }
+                assertEquals(MoveResult.OK, result);
+            }
+        }
+        assertTrue(wins > 0);
+    }
+
+    @Test
+    void throwingMethods_mapResults() {
+        assertThrows(IllegalCallerException.class, () -> state.addSelection(new Position(4, 0)));
+        assertThrows(IllegalCallerException.class, () -> state.addGhost(new Position(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> state.endTurn());
+        state.addSelection(new Position(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> state.addSelection(new Position(0, 0)));
+        state.addSelection(new Position(0, 2));
+        assertThrows(IllegalStateException.class, () -> state.addSelection(new Position(0, 3)));
+        state.addGhost(new Position(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> state.addGhost(new Position(1, 0)));
+        state.addGhost(new Position(2, 2));
+        assertThrows(IllegalStateException.class, () -> state.addGhost(new Position(2, 4)));
+        assertThrows(IllegalStateException.class, () -> state.endTurn());
+    }
+
+    @Test
+    void clone_doesNotShareSelection() {
+        state.addSelection(new Position(0, 0));
+        var clone = state.clone();
+        clone.addSelection(new Position(0, 1));
+        clone.getSelected().get(0).setSouth();
+
+        assertEquals(1, state.getSelected().size());
+        assertEquals(new Position(0, 0), state.getSelected().get(0));
+        assertNotSame(state.getPlayers(), clone.getPlayers());
+    }
+
+    @Test
+    void makeMove() {
+        state.makeMove(Move.of(Board.cell(0, 0), Board.cell(0, 2), Direction.SOUTH));
+
+        assertEquals(Player.RED, state.getCurrentPlayer());
+        assertEquals(1, state.getNumberOfTurns());
+        assertEquals(1, state.getUndoDepth());
+        assertTrue(state.isBlue(new Position(1, 0)));
+        assertTrue(state.isFree(new Position(0, 0)));
+        state.nextPlayer();
+        assertArrayEquals(new Position[]{
+                new Position(1, 0),
+                new Position(0, 1),
+                new Position(1, 2),
+                new Position(0, 3),
+                new Position(0, 4)}, state.getCurrentPlayerPositions());
+    }
+
+    @Test
+    void unmakeMove_restoresEveryPosition() {
+        var random = new SplittableRandom(1);
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        var keys = new long[100];
+        int plies = 0;
+        while (plies < keys.length) {
+            int count = MoveGenerator.generate(state.getBoard(), state.getCurrentPlayer(), moves);
+            if (count == 0) {
+                break;
+            }
+            keys[plies++] = state.getKey();
+            state.makeMove(moves[random.nextInt(count)]);
+        }
+
+        assertEquals(plies, state.getUndoDepth());
+        while (plies > 0) {
+            state.unmakeMove();
+            assertEquals(keys[--plies], state.getKey());
+        }
+        assertEquals(new GameState(), state);
+        assertEquals(new GameState().toString(), state.toString());
+        assertEquals(0, state.getNumberOfTurns());
+        assertThrows(IllegalStateException.class, () -> state.unmakeMove());
+    }
+
+    @Test
+    void unmakeMove_afterGuiMove() {
+        state.makeMove(Move.of(Board.cell(0, 0), Board.cell(0, 2), Direction.SOUTH));
+        state.trySelect(new Position(4, 0));
+        state.trySelect(new Position(4, 2));
+        state.tryAddGhost(new Position(3, 0));
+        state.tryAddGhost(new Position(3, 2));
+        assertEquals(MoveResult.OK, state.tryEndTurn());
+        var key = state.getKey();
+
+        assertEquals(0, state.getUndoDepth());
+        assertThrows(IllegalStateException.class, () -> state.unmakeMove());
+        assertEquals(key, state.getKey());
+        assertTrue(state.isBlue(new Position(1, 0)));
+        assertTrue(state.isRed(new Position(3, 0)));
+        assertTrue(state.isFree(new Position(4, 2)));
+    }
+
+    @Test
+    void nextPlayer_discardsUndo() {
+        state.makeMove(Move.of(Board.cell(0, 0), Board.cell(0, 2), Direction.SOUTH));
+        state.nextPlayer();
+
+        assertEquals(0, state.getUndoDepth());
+        assertThrows(IllegalStateException.class, () -> state.unmakeMove());
+        assertTrue(state.isBlue(new Position(1, 2)));
+    }
+
+    @Test
+    void makeMove_doesNotChangeClones() {
+        var clone = state.clone();
+        state.makeMove(Move.of(Board.cell(0, 0), Board.cell(0, 2), Direction.SOUTH));
+
+        assertEquals(new GameState(), clone);
+        assertEquals(0, clone.getUndoDepth());
+        assertEquals(Player.BLUE, clone.getCurrentPlayer());
+    }
+
+    @Test
+    void getKey() {
+        var blueKey = state.getKey();
+        state.nextPlayer();
+
+        assertNotEquals(blueKey, state.getKey());
+        assertEquals(new GameState().hashCode(), state.hashCode());
+
+        state.nextPlayer();
+        assertEquals(blueKey, state.getKey());
+    }
+
     @Test
     void testToString() {
         assertEquals("{blue: [(0,0), (0,1), (0,2), (0,3), (0,4)], red: [(4,0), (4,1), (4,2), (4,3), (4,4)], forbidden: [(1,1), (1,3), (3,1), (3,3)], BOARD_SIZE: 5, currentPlayer: Blue}", state.toString());
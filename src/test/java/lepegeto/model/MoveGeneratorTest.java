@@ -0,0 +1,125 @@
+package lepegeto.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Returns whether the reference rules of {@link GameState} accept the move.
+     */
+    private static boolean isLegalByReference(GameState state, int move) {
+        var copy = state.clone();
+        copy.clearSelection();
+        var direction = Move.direction(move);
+        var first = new Position(Board.row(Move.first(move)), Board.col(Move.first(move)));
+        var second = new Position(Board.row(Move.second(move)), Board.col(Move.second(move)));
+        try {
+            copy.addSelection(first);
+            copy.addSelection(second);
+            copy.addGhost(first.getTarget(direction));
+            copy.addGhost(second.getTarget(direction));
+            copy.endTurn();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        } finally {
+            copy.clearSelection();
+        }
+    }
+
+    private static void play(GameState state, int move) {
+        var direction = Move.direction(move);
+        var first = new Position(Board.row(Move.first(move)), Board.col(Move.first(move)));
+        var second = new Position(Board.row(Move.second(move)), Board.col(Move.second(move)));
+        state.addSelection(first);
+        state.addSelection(second);
+        state.addGhost(first.getTarget(direction));
+        state.addGhost(second.getTarget(direction));
+        state.endTurn();
+    }
+
+    @Test
+    void generate_initialPosition() {
+        var board = new Board();
+        int count = MoveGenerator.generate(board, Player.BLUE, moves);
+
+        // Three pairs of (0,0), (0,2), (0,4) step South, (0,1) and (0,3) step Southeast or Southwest.
+        assertEquals(5, count);
+        assertEquals(MoveGenerator.count(board.getBlue(), board.free()), count);
+        assertTrue(MoveGenerator.hasMove(board.getBlue(), board.free()));
+        for (int i = 0; i < count; ++i) {
+            assertTrue(Move.first(moves[i]) < Move.second(moves[i]));
+            assertTrue(MoveGenerator.isLegal(board, Player.BLUE, moves[i]));
+        }
+    }
+
+    @Test
+    void generate_matchesReferenceRules() {
+        var random = new Random(42);
+        for (int game = 0; game < 20; ++game) {
+            var state = new GameState();
+            for (int ply = 0; ply < 40; ++ply) {
+                var board = state.getBoard();
+                var player = state.getCurrentPlayer();
+                int count = MoveGenerator.generate(board, player, moves);
+
+                Set<Integer> generated = new HashSet<>();
+                for (int i = 0; i < count; ++i) {
+                    assertTrue(generated.add(moves[i]), "duplicate move");
+                }
+
+                for (int first = 0; first < Board.CELLS; ++first) {
+                    for (int second = first + 1; second < Board.CELLS; ++second) {
+                        if (!board.isOccupiedBy(player, first) || !board.isOccupiedBy(player, second)) {
+                            continue;
+                        }
+                        for (var direction : Direction.values()) {
+                            int move = Move.of(first, second, direction);
+                            assertEquals(isLegalByReference(state, move), generated.contains(move), Move.toString(move));
+                        }
+                    }
+                }
+
+                if (count == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(count)];
+                board.apply(player, move);
+                play(state, move);
+                assertEquals(board, state.getBoard());
+            }
+        }
+    }
+
+    @Test
+    void apply_isUndoneByApplyingAgain() {
+        var board = new Board();
+        int count = MoveGenerator.generate(board, Player.RED, moves);
+        for (int i = 0; i < count; ++i) {
+            var copy = board.clone();
+            copy.apply(Player.RED, moves[i]);
+            assertNotEquals(board, copy);
+            assertEquals(5, Long.bitCount(copy.getRed()));
+            copy.apply(Player.RED, moves[i]);
+            assertEquals(board, copy);
+        }
+    }
+
+    @Test
+    void isLegal() {
+        var board = new Board();
+        assertTrue(MoveGenerator.isLegal(board, Player.BLUE, Move.of(0, 2, Direction.SOUTH)));
+        assertFalse(MoveGenerator.isLegal(board, Player.BLUE, Move.of(0, 1, Direction.SOUTH)));
+        assertFalse(MoveGenerator.isLegal(board, Player.BLUE, Move.of(0, 2, Direction.NORTH)));
+        assertFalse(MoveGenerator.isLegal(board, Player.BLUE, Move.of(0, 0, Direction.SOUTH)));
+        assertFalse(MoveGenerator.isLegal(board, Player.RED, Move.of(0, 2, Direction.SOUTH)));
+    }
+}
@@ -0,0 +1,46 @@
+package lepegeto.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayerTest {
+
+    @Test
+    void boardAt_matchesSequentialReplay() {
+        var game = GameRecordingTest.randomGame(new SplittableRandom(4), 100);
+        for (int interval : new int[]{1, 3, Replayer.DEFAULT_INTERVAL, 1000}) {
+            var replayer = new Replayer(game, interval);
+            var state = game.getStart();
+            for (int ply = 0; ply <= game.length(); ++ply) {
+                assertEquals(state.getBoard(), replayer.boardAt(ply));
+                assertEquals(state.getCurrentPlayer(), replayer.playerAt(ply));
+                var replayed = replayer.stateAt(ply);
+                assertEquals(state, replayed);
+                assertEquals(state.getKey(), replayed.getKey());
+                assertEquals(state.getNumberOfTurns(), replayed.getNumberOfTurns());
+                assertEquals(state.getPlayers(), replayed.getPlayers());
+                if (ply < game.length()) {
+                    state.makeMove(game.getMove(ply));
+                }
+            }
+        }
+    }
+
+    @Test
+    void boardAt_outOfRange() {
+        var replayer = new Replayer(GameRecordingTest.randomGame(new SplittableRandom(5), 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> replayer.boardAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> replayer.boardAt(replayer.length() + 1));
+    }
+
+    @Test
+    void replayer_rejectsIllegalMove() {
+        int move = Move.of(Board.cell(4, 0), Board.cell(4, 1), Direction.NORTH);
+        var recording = new GameRecording(new GameState(), new int[]{move}, false, null);
+        assertThrows(IllegalArgumentException.class, () -> new Replayer(recording));
+        assertThrows(IllegalArgumentException.class, () -> new Replayer(recording, 0));
+    }
+}
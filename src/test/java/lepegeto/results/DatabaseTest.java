@@ -0,0 +1,21 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * A test working on a {@link ResultManager} over an in-memory H2 database of its own.
+ */
+abstract class DatabaseTest {
+    protected ResultManager manager;
+
+    @BeforeEach
+    void openDatabase() {
+        manager = TestResults.h2(getClass().getSimpleName());
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        manager.close();
+    }
+}
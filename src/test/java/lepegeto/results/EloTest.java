@@ -0,0 +1,47 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EloTest {
+
+    @Test
+    void expectedScore() {
+        assertEquals(0.5, Elo.expectedScore(1500, 1500), 1e-12);
+        assertEquals(1 / 11.0, Elo.expectedScore(1500, 1900), 1e-12);
+        assertEquals(1, Elo.expectedScore(1700, 1300) + Elo.expectedScore(1300, 1700), 1e-12);
+    }
+
+    @Test
+    void apply_winBetweenEquals() {
+        var ratings = new HashMap<String, Rating>();
+        assertTrue(new Elo().apply(ratings, result("ann", "bob", "ann", 1)));
+        assertEquals(1516, ratings.get("ann").getRating(), 1e-9);
+        assertEquals(1484, ratings.get("bob").getRating(), 1e-9);
+        assertEquals(1, ratings.get("ann").getGames());
+        assertEquals(1, ratings.get("bob").getGames());
+    }
+
+    @Test
+    void apply_drawMovesTowardsEachOther() {
+        var ratings = new HashMap<String, Rating>();
+        ratings.put("ann", new Rating("ann", 1600, 10));
+        ratings.put("bob", new Rating("bob", 1400, 10));
+        new Elo(10).apply(ratings, result("ann", "bob", null, 1));
+        assertTrue(ratings.get("ann").getRating() < 1600);
+        assertEquals(3000, ratings.get("ann").getRating() + ratings.get("bob").getRating(), 1e-9);
+    }
+
+    @Test
+    void apply_unratedGames() {
+        var ratings = new HashMap<String, Rating>();
+        var elo = new Elo();
+        assertFalse(elo.apply(ratings, result("ann", "ann", "ann", 1)));
+        assertFalse(elo.apply(ratings, result("ann", null, "ann", 1)));
+        assertTrue(ratings.isEmpty());
+    }
+}
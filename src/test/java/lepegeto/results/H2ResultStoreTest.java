@@ -0,0 +1,11 @@
+package lepegeto.results;
+
+import static lepegeto.results.TestResults.h2;
+
+class H2ResultStoreTest extends ResultStoreTest {
+
+    @Override
+    ResultStore createStore() {
+        return h2("store");
+    }
+}
@@ -0,0 +1,23 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryResultStoreTest extends ResultStoreTest {
+
+    @Override
+    ResultStore createStore() {
+        return new InMemoryResultStore();
+    }
+
+    @Test
+    void insert_keepsCopy() {
+        var result = result("ann", "bob", "ann", 5);
+        store.insert(result);
+        result.setSteps(1);
+        fetchAll(store).get(0).setSteps(2);
+        assertEquals(5, fetchAll(store).get(0).getSteps());
+    }
+}
@@ -0,0 +1,128 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalResultStoreTest extends ResultStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path() {
+        return directory.resolve("results.journal");
+    }
+
+    @Override
+    ResultStore createStore() throws IOException {
+        return new JournalResultStore(path(), 64, new Elo());
+    }
+
+    @Test
+    void reopen_readsEveryResult() throws IOException {
+        var results = randomResults(new SplittableRandom(4), 500);
+        store.insertAll(results.subList(0, 250));
+        results.subList(250, 500).forEach(store::insert);
+        var expected = fetchAll(store);
+        var players = store.fetchTopPlayers(10);
+        var ratings = store.fetchTopRatings(10);
+        store.close();
+
+        store = new JournalResultStore(path());
+        assertEquals(expected, fetchAll(store));
+        assertEquals(players, store.fetchTopPlayers(10));
+        assertEquals(ratings, store.fetchTopRatings(10));
+
+        var next = result("ann", "bob", "bob", 1);
+        store.insert(next);
+        assertEquals(501, next.getId());
+    }
+
+    @Test
+    void reopen_dropsDamagedTail() throws IOException {
+        store.insert(result("ann", "bob", "ann", 5));
+        store.insert(result("ann", "bob", "bob", 6));
+        store.close();
+
+        var bytes = Files.readAllBytes(path());
+        int second = JournalResultStore.HEADER_SIZE + JournalResultStore.RECORD_HEADER_SIZE
+                + ByteBuffer.wrap(bytes, JournalResultStore.HEADER_SIZE, 4).getInt();
+        bytes[second + JournalResultStore.RECORD_HEADER_SIZE + 2] ^= 1;
+        Files.write(path(), bytes);
+
+        store = new JournalResultStore(path());
+        assertEquals(1, fetchAll(store).size());
+        store.insert(result("cid", "dan", "cid", 7));
+        store.close();
+
+        store = new JournalResultStore(path());
+        assertEquals(List.of("ann", "cid"), List.of(fetchAll(store).get(0).getWinner(), fetchAll(store).get(1).getWinner()));
+    }
+
+    @Test
+    void reopen_dropsTornBatch() throws IOException {
+        store.insert(result("ann", "bob", "ann", 5));
+        store.insertAll(List.of(result("cid", "dan", "cid", 6), result("dan", "cid", "dan", 7),
+                result("cid", "dan", "dan", 8)));
+        store.close();
+
+        // A crash before the length of the first result of the batch is written leaves the others behind it.
+        var bytes = Files.readAllBytes(path());
+        int batch = JournalResultStore.HEADER_SIZE + JournalResultStore.RECORD_HEADER_SIZE
+                + ByteBuffer.wrap(bytes, JournalResultStore.HEADER_SIZE, 4).getInt();
+        ByteBuffer.wrap(bytes).putInt(batch, 0);
+        Files.write(path(), bytes);
+
+        store = new JournalResultStore(path());
+        assertEquals(1, fetchAll(store).size());
+        store.insertAll(List.of(result("eve", "fay", "eve", 9)));
+        store.close();
+
+        store = new JournalResultStore(path());
+        var results = fetchAll(store);
+        assertEquals(List.of("ann", "eve"), List.of(results.get(0).getWinner(), results.get(1).getWinner()));
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    void open_rejectsOtherFiles() throws IOException {
+        var other = directory.resolve("other");
+        Files.write(other, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> new JournalResultStore(other));
+    }
+
+    @Test
+    void encode_decode() {
+        var result = result("\u00e9va", null, "\u00e9va", 12);
+        var decoded = JournalResultStore.decode(ByteBuffer.wrap(JournalResultStore.encode(result)));
+        assertEquals("\u00e9va", decoded.getPlayer1());
+        assertNull(decoded.getPlayer2());
+        assertEquals(12, decoded.getSteps());
+        assertEquals(result.getCreated().toInstant(), decoded.getCreated().toInstant());
+
+        var undated = new GameResult();
+        assertNull(JournalResultStore.decode(ByteBuffer.wrap(JournalResultStore.encode(undated))).getCreated());
+        assertThrows(IllegalArgumentException.class,
+                () -> JournalResultStore.encode(result("x".repeat(70_000), "b", "b", 1)));
+    }
+
+    @Test
+    void insertAll_growsMapping() {
+        var results = new ArrayList<GameResult>();
+        for (int i = 0; i < 1000; ++i) {
+            results.add(result("player" + i, "opponent", "opponent", i));
+        }
+        store.insertAll(results);
+        assertEquals(1000, fetchAll(store).size());
+    }
+}
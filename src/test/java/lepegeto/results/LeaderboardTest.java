@@ -0,0 +1,106 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest extends DatabaseTest {
+
+    @Test
+    void load_readsTopOfDatabase() {
+        var random = new SplittableRandom(1);
+        for (int i = 0; i < 30; ++i) {
+            manager.insert(result(random.nextInt(20)));
+        }
+        var leaderboard = new Leaderboard(manager, 10);
+        assertEquals(ids(manager.fetchPage(null, 10)), ids(leaderboard.top(10)));
+        assertEquals(ids(manager.fetchPage(null, 5)), ids(leaderboard.top(5)));
+    }
+
+    @Test
+    void add_keepsBestResults() {
+        var leaderboard = new Leaderboard(manager, 3);
+        var results = new ArrayList<GameResult>();
+        for (int steps : new int[]{5, 9, 1, 7, 3, 3}) {
+            var result = result(steps);
+            results.add(result);
+            leaderboard.add(result);
+        }
+        var top = leaderboard.top(10);
+        assertEquals(List.of(1, 3, 3), top.stream().map(GameResult::getSteps).collect(Collectors.toList()));
+        assertSame(results.get(4), top.get(1));
+        assertSame(results.get(5), top.get(2));
+    }
+
+    @Test
+    void reload_keepsUnstoredResults() {
+        manager.insert(result(4));
+        var leaderboard = new Leaderboard(manager, 10);
+        var stored = result(2);
+        var unstored = result(3);
+        leaderboard.add(stored);
+        leaderboard.add(unstored);
+        leaderboard.store(List.of(stored), () -> manager.insertAll(List.of(stored)));
+
+        leaderboard.reload();
+        var top = leaderboard.top(10);
+        assertEquals(List.of(2, 3, 4), top.stream().map(GameResult::getSteps).collect(Collectors.toList()));
+        assertSame(unstored, top.get(1));
+    }
+
+    @Test
+    void drop_removesResultsThatCannotBeStored() {
+        manager.insert(result(4));
+        var leaderboard = new Leaderboard(manager, 10);
+        var failed = result(2);
+        leaderboard.add(failed);
+        assertThrows(IllegalStateException.class, () -> leaderboard.store(List.of(failed), () -> {
+            throw new IllegalStateException();
+        }));
+
+        leaderboard.reload();
+        assertSame(failed, leaderboard.top(10).get(0));
+        leaderboard.drop(List.of(failed));
+        assertEquals(ids(manager.fetchPage(null, 10)), ids(leaderboard.top(10)));
+        leaderboard.reload();
+        assertEquals(ids(manager.fetchPage(null, 10)), ids(leaderboard.top(10)));
+    }
+
+    @Test
+    void recorder_matchesDatabaseAfterFlush() throws InterruptedException {
+        var leaderboard = new Leaderboard(manager, 20);
+        var random = new SplittableRandom(2);
+        try (var recorder = new ResultRecorder(manager, leaderboard, 7, Duration.ofMillis(5), 1000)) {
+            for (int i = 0; i < 100; ++i) {
+                recorder.record(result(random.nextInt(50)));
+                if (i % 10 == 0) {
+                    leaderboard.reload();
+                }
+            }
+            recorder.flush();
+        }
+        assertEquals(ids(manager.fetchPage(null, 20)), ids(leaderboard.top(20)));
+        leaderboard.reload();
+        assertEquals(ids(manager.fetchPage(null, 20)), ids(leaderboard.top(20)));
+    }
+
+    @Test
+    void scheduleReload_picksUpOtherWriters() throws InterruptedException {
+        try (var leaderboard = new Leaderboard(manager, 10)) {
+            leaderboard.scheduleReload(Duration.ofMillis(10));
+            manager.insert(result(1));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (leaderboard.top(1).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, leaderboard.top(1).size());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStatsRebuildTest extends DatabaseTest {
+    private static final String[] NAMES = {"ann", "bob", "cid", "dan"};
+
+    @Test
+    void insert_updatesStats() {
+        var now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        manager.insert(result("ann", "bob", "ann", 30, now.minusDays(1)));
+        manager.insertAll(new ArrayList<>(List.of(
+                result("ann", "cid", "cid", 10, now),
+                result("bob", "ann", "ann", 20, now.minusDays(2)))));
+
+        var ann = manager.getPlayerStats("ann").orElseThrow();
+        assertEquals(3, ann.getGames());
+        assertEquals(2, ann.getWins());
+        assertEquals(10, ann.getMinSteps());
+        assertEquals(60, ann.getTotalSteps());
+        assertEquals(20.0, ann.getAverageSteps());
+        assertEquals(now.toInstant(), ann.getLastPlayed().toInstant());
+
+        var bob = manager.getPlayerStats("bob").orElseThrow();
+        assertEquals(2, bob.getGames());
+        assertEquals(0, bob.getWins());
+        assertTrue(manager.getPlayerStats("dan").isEmpty());
+    }
+
+    @Test
+    void insert_samePlayerTwice_countedOnce() {
+        manager.insert(result("ann", "ann", "ann", 5, ZonedDateTime.now()));
+        var ann = manager.getPlayerStats("ann").orElseThrow();
+        assertEquals(1, ann.getGames());
+        assertEquals(1, ann.getWins());
+    }
+
+    @Test
+    void fetchTopPlayers_mostWinsFirst() {
+        var now = ZonedDateTime.now();
+        manager.insert(result("ann", "bob", "bob", 5, now));
+        manager.insert(result("ann", "bob", "bob", 5, now));
+        manager.insert(result("cid", "ann", "ann", 5, now));
+
+        var top = manager.fetchTopPlayers(2);
+        assertEquals(2, top.size());
+        assertEquals("bob", top.get(0).getName());
+        assertEquals(2, top.get(0).getWins());
+        assertEquals("ann", top.get(1).getName());
+    }
+
+    @Test
+    void run_matchesIncrementalStats() {
+        var random = new SplittableRandom(3);
+        var results = new ArrayList<GameResult>();
+        var now = ZonedDateTime.now();
+        for (int i = 0; i < 257; ++i) {
+            var player1 = NAMES[random.nextInt(NAMES.length)];
+            var player2 = NAMES[random.nextInt(NAMES.length)];
+            var winner = random.nextBoolean() ? player1 : player2;
+            results.add(result(player1, player2, winner, 1 + random.nextInt(50), now.minusMinutes(random.nextInt(10_000))));
+        }
+        manager.insertAll(results);
+        var expected = manager.fetchTopPlayers(NAMES.length);
+
+        manager.getJdbi().useHandle(handle -> handle.execute("UPDATE player_stats SET games = 0, wins = 0"));
+        assertEquals(257, new PlayerStatsRebuild(manager, 16).run());
+
+        assertEquals(expected, manager.fetchTopPlayers(NAMES.length));
+    }
+
+    @Test
+    void run_emptyTable() {
+        manager.insert(result("ann", "bob", "ann", 5, ZonedDateTime.now()));
+        manager.getJdbi().useHandle(handle -> handle.execute("DELETE FROM lepegeto"));
+        assertEquals(0, new PlayerStatsRebuild(manager, 16).run());
+        assertTrue(manager.fetchTopPlayers(10).isEmpty());
+    }
+}
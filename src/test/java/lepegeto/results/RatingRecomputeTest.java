@@ -0,0 +1,89 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingRecomputeTest extends DatabaseTest {
+    private static List<GameResult> randomResults(SplittableRandom random, int count, int players, ZonedDateTime start) {
+        var results = new ArrayList<GameResult>(count);
+        for (int i = 0; i < count; ++i) {
+            var player1 = "p" + random.nextInt(players);
+            var player2 = "p" + random.nextInt(players);
+            int outcome = random.nextInt(5);
+            var winner = outcome < 2 ? player1 : outcome < 4 ? player2 : null;
+            results.add(result(player1, player2, winner, 1 + random.nextInt(40), start.plusSeconds(i)));
+        }
+        return results;
+    }
+
+    @Test
+    void insert_updatesRatings() {
+        manager.insert(result("ann", "bob", "ann", 5));
+        assertEquals(1516, manager.getRating("ann").orElseThrow().getRating(), 1e-9);
+        assertEquals(1484, manager.getRating("bob").orElseThrow().getRating(), 1e-9);
+        assertTrue(manager.getRating("cid").isEmpty());
+        assertEquals("ann", manager.fetchTopRatings(1).get(0).getName());
+    }
+
+    @Test
+    void insertAll_matchesSingleInserts() {
+        var results = randomResults(new SplittableRandom(5), 300, 12, ZonedDateTime.now());
+        manager.insertAll(new ArrayList<>(results.subList(0, 150)));
+        for (var result : results.subList(150, 300)) {
+            manager.insert(result);
+        }
+
+        var expected = new HashMap<String, Rating>();
+        var elo = new Elo();
+        for (var result : results) {
+            elo.apply(expected, result);
+        }
+        var top = manager.fetchTopRatings(100);
+        assertEquals(expected.size(), top.size());
+        for (var rating : top) {
+            assertEquals(expected.get(rating.getName()).getRating(), rating.getRating(), 1e-9);
+            assertEquals(expected.get(rating.getName()).getGames(), rating.getGames());
+        }
+        for (int i = 1; i < top.size(); ++i) {
+            assertTrue(top.get(i - 1).getRating() >= top.get(i).getRating());
+        }
+    }
+
+    @Test
+    void run_replaysInCreatedOrder() {
+        var start = ZonedDateTime.now();
+        var results = randomResults(new SplittableRandom(8), 2000, 30, start);
+        manager.insertAll(new ArrayList<>(results));
+        var incremental = manager.fetchTopRatings(100);
+
+        manager.getJdbi().useHandle(handle -> handle.execute("UPDATE ratings SET rating = 0"));
+        assertEquals(results.stream().filter(Elo::isRated).count(), new RatingRecompute(manager).run());
+        assertEquals(incremental, manager.fetchTopRatings(100));
+
+        // A game stored late but played first moves to the front of the history.
+        var early = result("p0", "p1", "p0", 3, start.minusDays(1));
+        manager.insert(early);
+        new RatingRecompute(manager).run();
+        var replayed = new HashMap<String, Rating>();
+        var elo = new Elo();
+        elo.apply(replayed, early);
+        for (var result : results) {
+            elo.apply(replayed, result);
+        }
+        assertEquals(replayed.get("p0").getRating(), manager.getRating("p0").orElseThrow().getRating(), 1e-9);
+    }
+
+    @Test
+    void run_emptyHistory() {
+        assertEquals(0, new RatingRecompute(manager).run());
+        assertTrue(manager.fetchTopRatings(10).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package lepegeto.results;
+
+import com.google.inject.Guice;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultManagerTest extends DatabaseTest {
+
+    @Test
+    void insertAndFetchPage() {
+        manager.insert(result("a", "b", "a", 30));
+        manager.insert(result("a", "b", "b", 10));
+        manager.insert(result("a", "b", "a", 20));
+
+        var results = manager.fetchPage(null, 10);
+        assertEquals(3, results.size());
+        assertEquals(List.of(10, 20, 30), results.stream().map(GameResult::getSteps).collect(Collectors.toList()));
+        assertEquals("b", results.get(0).getWinner());
+    }
+
+    @Test
+    void fetchPage_walksEveryResultOnce() {
+        var random = new SplittableRandom(1);
+        var all = new ArrayList<GameResult>();
+        for (int i = 0; i < 95; ++i) {
+            all.add(result("a", "b", "a", random.nextInt(10)));
+        }
+        manager.insertAll(all);
+
+        var pages = new ArrayList<GameResult>();
+        GameResult last = null;
+        List<GameResult> page;
+        do {
+            page = manager.fetchPage(last, 10);
+            assertTrue(page.size() <= 10);
+            pages.addAll(page);
+            last = page.isEmpty() ? last : page.get(page.size() - 1);
+        } while (page.size() == 10);
+
+        assertEquals(95, pages.size());
+        assertEquals(95, pages.stream().mapToLong(GameResult::getId).distinct().count());
+        for (int i = 1; i < pages.size(); ++i) {
+            var previous = pages.get(i - 1);
+            var current = pages.get(i);
+            assertTrue(previous.getSteps() < current.getSteps()
+                    || previous.getSteps() == current.getSteps() && previous.getId() < current.getId());
+        }
+    }
+
+    @Test
+    void upgradesTableWithoutId() {
+        var pool = JdbcConnectionPool.create("jdbc:h2:mem:upgrade", "", "");
+        try (var connection = pool.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE lepegeto (winner VARCHAR2, player1 VARCHAR2, player2 VARCHAR2, steps INTEGER, created TIMESTAMP)");
+            statement.execute("INSERT INTO lepegeto values('a', 'a', 'b', 7, CURRENT_TIMESTAMP)");
+        } catch (SQLException e) {
+            fail(e);
+        }
+        try (var upgraded = new ResultManager(pool)) {
+            upgraded.insert(result("a", "b", "b", 3));
+            var page = upgraded.fetchPage(null, 10);
+            assertEquals(List.of(3, 7), page.stream().map(GameResult::getSteps).collect(Collectors.toList()));
+            assertNotEquals(page.get(0).getId(), page.get(1).getId());
+        }
+    }
+
+    @Test
+    void fetchPage_emptyTable() {
+        assertTrue(manager.fetchPage(null, 10).isEmpty());
+    }
+
+    @Test
+    void module_providesSingleton() {
+        var injector = Guice.createInjector(new ResultModule("jdbc:h2:mem:module"));
+        var first = injector.getInstance(ResultManager.class);
+        try {
+            assertSame(first, injector.getInstance(ResultManager.class));
+            first.insert(result("a", "b", "a", 5));
+            assertEquals(1, fetchAll(injector.getInstance(ResultManager.class)).size());
+        } finally {
+            first.close();
+        }
+    }
+}
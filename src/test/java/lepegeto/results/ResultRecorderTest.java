@@ -0,0 +1,94 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultRecorderTest extends DatabaseTest {
+
+    @Test
+    void flush_storesEverything() throws InterruptedException {
+        try (var recorder = new ResultRecorder(manager, new Leaderboard(manager), 10, Duration.ofMinutes(1), 1000)) {
+            for (int i = 0; i < 25; ++i) {
+                recorder.record(result(i));
+            }
+            recorder.flush();
+            assertEquals(25, fetchAll(manager).size());
+            assertEquals(0, recorder.getQueueDepth());
+            assertEquals(0, recorder.getDropped());
+            assertTrue(recorder.getFlushes() >= 3);
+            assertTrue(recorder.getMaxFlushNanos() >= recorder.getLastFlushNanos());
+            assertTrue(recorder.getAverageFlushNanos() > 0);
+        }
+    }
+
+    @Test
+    void write_byTime() throws InterruptedException {
+        try (var recorder = new ResultRecorder(manager, new Leaderboard(manager), 100, Duration.ofMillis(20), 1000)) {
+            recorder.record(result(1));
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (recorder.getFlushes() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, recorder.getFlushes());
+            assertEquals(1, fetchAll(manager).size());
+        }
+    }
+
+    @Test
+    void close_storesQueuedResults() {
+        var recorder = new ResultRecorder(manager, new Leaderboard(manager), 100, Duration.ofMinutes(1), 1000);
+        for (int i = 0; i < 10; ++i) {
+            recorder.record(result(i));
+        }
+        recorder.close();
+        assertEquals(10, fetchAll(manager).size());
+        assertThrows(IllegalStateException.class, () -> recorder.record(result(0)));
+    }
+
+    @Test
+    void close_storesEveryResultRecordedConcurrently() throws InterruptedException {
+        var recorder = new ResultRecorder(manager, new Leaderboard(manager), 50, Duration.ofMillis(5), 100);
+        var accepted = new AtomicInteger();
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; ++i) {
+            var thread = new Thread(() -> {
+                try {
+                    while (true) {
+                        recorder.record(result(1));
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // closed
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        Thread.sleep(50);
+        recorder.close();
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(accepted.get(), fetchAll(manager).size());
+    }
+
+    @Test
+    void flush_countsDroppedResults() throws InterruptedException {
+        var closedManager = h2("dropped");
+        var leaderboard = new Leaderboard(closedManager);
+        closedManager.close();
+        try (var recorder = new ResultRecorder(closedManager, leaderboard, 10, Duration.ofMinutes(1), 1000)) {
+            recorder.record(result(1));
+            recorder.flush();
+            assertEquals(1, recorder.getDropped());
+            assertEquals(0, recorder.getQueueDepth());
+            assertTrue(leaderboard.top(10).isEmpty());
+        }
+    }
+}
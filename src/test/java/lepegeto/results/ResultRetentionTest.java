@@ -0,0 +1,125 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultRetentionTest extends DatabaseTest {
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2026, 10, 18, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final Clock CLOCK = Clock.fixed(NOW.toInstant(), ZoneOffset.UTC);
+    private static final String[] NAMES = {"ann", "bob", "cid"};
+
+    private List<GameResult> results;
+
+    @BeforeEach
+    void setUp() {
+        var random = new SplittableRandom(6);
+        results = new ArrayList<>();
+        for (int i = 0; i < 300; ++i) {
+            var player1 = NAMES[random.nextInt(NAMES.length)];
+            var player2 = NAMES[random.nextInt(NAMES.length)];
+            results.add(result(player1, player2, random.nextBoolean() ? player1 : player2, 1 + random.nextInt(50),
+                    NOW.minusMinutes(random.nextInt(20 * 24 * 60))));
+        }
+        manager.insertAll(results);
+    }
+
+    @Test
+    void run_rollsUpExpiredResults() {
+        var retention = new ResultRetention(manager, Period.ofDays(7), 0, 7, CLOCK);
+        var cutoff = retention.getCutoff();
+        assertEquals(ZonedDateTime.of(2026, 10, 11, 0, 0, 0, 0, ZoneOffset.UTC), cutoff);
+        long expired = results.stream().filter(result -> result.getCreated().isBefore(cutoff)).count();
+        var stats = manager.fetchTopPlayers(10);
+
+        assertEquals(expired, retention.run());
+        assertEquals(results.size() - expired, fetchAll(manager).size());
+        assertTrue(fetchAll(manager).stream().noneMatch(result -> result.getCreated().isBefore(cutoff)));
+        assertEquals(stats, manager.fetchTopPlayers(10));
+
+        var summaries = manager.fetchDailySummaries(LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1));
+        for (var name : NAMES) {
+            long games = results.stream()
+                    .filter(result -> result.getCreated().isBefore(cutoff))
+                    .filter(result -> name.equals(result.getPlayer1()) || name.equals(result.getPlayer2()))
+                    .count();
+            assertEquals(games, summaries.stream().filter(summary -> summary.getName().equals(name))
+                    .mapToInt(DailySummary::getGames).sum());
+        }
+        assertTrue(summaries.stream().allMatch(summary -> summary.getPlayedOn().isBefore(cutoff.toLocalDate())));
+        assertEquals(0, retention.run());
+    }
+
+    @Test
+    void close_waitsForRunningBatch() throws InterruptedException {
+        var retention = new ResultRetention(manager, Period.ofDays(7), 0, 1, CLOCK);
+        long expired = results.stream().filter(result -> result.getCreated().isBefore(retention.getCutoff())).count();
+        retention.schedule(Duration.ofHours(1));
+        Thread.sleep(20);
+        retention.close();
+
+        long remaining = new ResultRetention(manager, Period.ofDays(7), 0, 50, CLOCK).run();
+        assertTrue(remaining <= expired);
+        assertEquals(results.size() - expired, fetchAll(manager).size());
+    }
+
+    @Test
+    void run_keepsBestResults() {
+        var best = manager.fetchPage(null, 20);
+        new ResultRetention(manager, Period.ofDays(1), 20, 16, CLOCK).run();
+        assertEquals(best, manager.fetchPage(null, 20));
+    }
+
+    @Test
+    void rebuild_countsSummaries() {
+        var stats = manager.fetchTopPlayers(10);
+        new ResultRetention(manager, Period.ofDays(3), 0, 50, CLOCK).run();
+        new PlayerStatsRebuild(manager, 32).run();
+        var rebuilt = manager.fetchTopPlayers(10);
+        assertEquals(stats.size(), rebuilt.size());
+        for (int i = 0; i < stats.size(); ++i) {
+            assertEquals(stats.get(i).getGames(), rebuilt.get(i).getGames());
+            assertEquals(stats.get(i).getWins(), rebuilt.get(i).getWins());
+            assertEquals(stats.get(i).getMinSteps(), rebuilt.get(i).getMinSteps());
+            assertEquals(stats.get(i).getTotalSteps(), rebuilt.get(i).getTotalSteps());
+            assertEquals(stats.get(i).getLastPlayed().toInstant(), rebuilt.get(i).getLastPlayed().toInstant());
+        }
+    }
+
+    @Test
+    void fetchBetween_pagesThroughRange() {
+        var from = NOW.minusDays(10);
+        var to = NOW.minusDays(5);
+        long expected = results.stream()
+                .filter(result -> !result.getCreated().isBefore(from) && result.getCreated().isBefore(to))
+                .count();
+        assertEquals(expected, manager.countBetween(from, to));
+
+        var pages = new ArrayList<GameResult>();
+        GameResult last = null;
+        List<GameResult> page;
+        do {
+            page = manager.fetchBetween(from, to, last, 9);
+            pages.addAll(page);
+            last = page.isEmpty() ? last : page.get(page.size() - 1);
+        } while (page.size() == 9);
+
+        assertEquals(expected, pages.size());
+        assertEquals(expected, pages.stream().mapToLong(GameResult::getId).distinct().count());
+        for (int i = 1; i < pages.size(); ++i) {
+            assertFalse(pages.get(i).getCreated().isBefore(pages.get(i - 1).getCreated()));
+        }
+    }
+}
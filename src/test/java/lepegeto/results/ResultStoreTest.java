@@ -0,0 +1,117 @@
+package lepegeto.results;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static lepegeto.results.TestResults.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The behavior shared by every {@link ResultStore}.
+ */
+abstract class ResultStoreTest {
+    protected ResultStore store;
+
+    abstract ResultStore createStore() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = createStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void insert_setsIdsAndKeepsFields() {
+        var first = result("ann", "bob", "ann", 7);
+        var second = result("bob", "ann", null, 3);
+        store.insert(first);
+        store.insertAll(new ArrayList<>(List.of(second)));
+        assertNotEquals(0, first.getId());
+        assertNotEquals(first.getId(), second.getId());
+
+        var fetched = fetchAll(store);
+        assertEquals(2, fetched.size());
+        assertEquals(second.getId(), fetched.get(0).getId());
+        assertNull(fetched.get(0).getWinner());
+        assertEquals("bob", fetched.get(0).getPlayer1());
+        assertEquals(first.getCreated().toInstant(), fetched.get(1).getCreated().toInstant());
+    }
+
+    @Test
+    void fetchPage_walksEveryResultOnce() {
+        var results = randomResults(new SplittableRandom(2), 75);
+        store.insertAll(results);
+        results.sort(Comparator.comparingInt(GameResult::getSteps).thenComparingLong(GameResult::getId));
+        var pages = new ArrayList<GameResult>();
+        GameResult last = null;
+        List<GameResult> page;
+        do {
+            page = store.fetchPage(last, 10);
+            pages.addAll(page);
+            last = page.isEmpty() ? last : page.get(page.size() - 1);
+        } while (page.size() == 10);
+
+        assertEquals(ids(results), ids(pages));
+        assertEquals(75, pages.stream().mapToLong(GameResult::getId).distinct().count());
+    }
+
+    @Test
+    void statsAndRatings() {
+        var results = randomResults(new SplittableRandom(3), 200);
+        store.insertAll(results.subList(0, 100));
+        results.subList(100, 200).forEach(store::insert);
+
+        var games = new HashMap<String, Integer>();
+        var wins = new HashMap<String, Integer>();
+        var ratings = new HashMap<String, Rating>();
+        var elo = new Elo();
+        for (var result : results) {
+            games.merge(result.getPlayer1(), 1, Integer::sum);
+            if (!result.getPlayer2().equals(result.getPlayer1())) {
+                games.merge(result.getPlayer2(), 1, Integer::sum);
+            }
+            wins.merge(result.getWinner(), 1, Integer::sum);
+            elo.apply(ratings, result);
+        }
+
+        var top = store.fetchTopPlayers(100);
+        assertEquals(games.size(), top.size());
+        for (int i = 0; i < top.size(); ++i) {
+            var player = top.get(i);
+            assertEquals(games.get(player.getName()), player.getGames());
+            assertEquals(wins.getOrDefault(player.getName(), 0), player.getWins());
+            if (i > 0) {
+                assertTrue(top.get(i - 1).getWins() >= player.getWins());
+            }
+        }
+        assertEquals(top.get(0), store.getPlayerStats(top.get(0).getName()).orElseThrow());
+
+        var topRatings = store.fetchTopRatings(100);
+        assertEquals(ratings.size(), topRatings.size());
+        for (var rating : topRatings) {
+            assertEquals(ratings.get(rating.getName()).getRating(), rating.getRating(), 1e-9);
+        }
+        assertEquals(topRatings.get(0).getRating(), store.getRating(topRatings.get(0).getName()).orElseThrow().getRating());
+        assertTrue(store.getPlayerStats("nobody").isEmpty());
+        assertTrue(store.getRating("nobody").isEmpty());
+    }
+
+    @Test
+    void emptyStore() {
+        assertTrue(fetchAll(store).isEmpty());
+        assertTrue(store.fetchPage(null, 10).isEmpty());
+        assertTrue(store.fetchTopPlayers(10).isEmpty());
+        assertTrue(store.fetchTopRatings(10).isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package lepegeto.results;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Fixtures shared by the tests of the results.
+ */
+final class TestResults {
+
+    private TestResults() {
+    }
+
+    /**
+     * Opens a {@link ResultManager} on a new in-memory H2 database, dropped when the manager is closed.
+     *
+     * @param name the name of the database
+     * @return the manager
+     */
+    static ResultManager h2(String name) {
+        return new ResultManager(JdbcConnectionPool.create("jdbc:h2:mem:" + name, "", ""));
+    }
+
+    static GameResult result(String player1, String player2, String winner, int steps, ZonedDateTime created) {
+        return GameResult.builder().player1(player1).player2(player2).winner(winner).steps(steps).created(created).build();
+    }
+
+    /**
+     * Returns a result created now, truncated to milliseconds so it survives every store unchanged.
+     */
+    static GameResult result(String player1, String player2, String winner, int steps) {
+        return result(player1, player2, winner, steps, ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    /**
+     * Returns a result of {@code a} beating {@code b}.
+     */
+    static GameResult result(int steps) {
+        return result("a", "b", "a", steps);
+    }
+
+    static List<GameResult> randomResults(SplittableRandom random, int count) {
+        var results = new ArrayList<GameResult>(count);
+        for (int i = 0; i < count; ++i) {
+            var player1 = "p" + random.nextInt(8);
+            var player2 = "p" + random.nextInt(8);
+            results.add(result(player1, player2, random.nextBoolean() ? player1 : player2, random.nextInt(20)));
+        }
+        return results;
+    }
+
+    static List<Long> ids(List<GameResult> results) {
+        return results.stream().map(GameResult::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns every result of a store, one page at a time.
+     *
+     * @param store the store
+     * @return the results, the shortest games first
+     */
+    static List<GameResult> fetchAll(ResultStore store) {
+        var all = new ArrayList<GameResult>();
+        GameResult last = null;
+        List<GameResult> page;
+        do {
+            page = store.fetchPage(last, 100);
+            all.addAll(page);
+            last = page.isEmpty() ? last : page.get(page.size() - 1);
+        } while (page.size() == 100);
+        return all;
+    }
+}
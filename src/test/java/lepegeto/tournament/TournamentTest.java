@@ -0,0 +1,73 @@
+package lepegeto.tournament;
+
+import lepegeto.model.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    @Test
+    void run_writesEveryGame() throws Exception {
+        var csv = new StringWriter();
+        var summary = new Tournament("random", "random", 20, 2, 42).run(csv);
+
+        var lines = csv.toString().lines().collect(Collectors.toList());
+        assertEquals(GameRecord.CSV_HEADER, lines.get(0));
+        assertEquals(21, lines.size());
+        assertEquals(20, summary.getGames());
+        assertEquals(20, summary.getFirstWins() + summary.getSecondWins() + summary.getDraws());
+        assertTrue(summary.getAverageTurns() > 0);
+        assertTrue(summary.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    void run_doesNotDependOnTheNumberOfThreads() throws Exception {
+        var sequential = new StringWriter();
+        var parallel = new StringWriter();
+        new Tournament("random", "random", 12, 1, 7).run(sequential);
+        new Tournament("random", "random", 12, 4, 7).run(parallel);
+
+        assertEquals(withoutTimes(sequential), withoutTimes(parallel));
+    }
+
+    @Test
+    void play_alternatesColors() {
+        var tournament = new Tournament("random", "alphabeta:1000:2000", 2, 1, 1);
+
+        var even = tournament.play(0, 3);
+        var odd = tournament.play(1, 3);
+
+        assertEquals(Player.BLUE, even.firstPlayer());
+        assertEquals(Player.RED, odd.firstPlayer());
+        assertTrue(even.isSecondWinner());
+        assertTrue(odd.isSecondWinner());
+    }
+
+    @Test
+    void parse_rejectsInvalidEngines() {
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse("minimax"));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse("alphabeta"));
+        assertThrows(IllegalArgumentException.class, () -> Tournament.parse("mcts:fast"));
+    }
+
+    @Test
+    void wilson() {
+        double[] interval = Summary.wilson(50, 100, Summary.Z_95);
+
+        assertEquals(0.4038, interval[0], 1e-4);
+        assertEquals(0.5962, interval[1], 1e-4);
+        assertEquals(0, Summary.wilson(0, 10, Summary.Z_95)[0]);
+        assertEquals(1, Summary.wilson(10, 10, Summary.Z_95)[1], 1e-9);
+    }
+
+    private static String withoutTimes(StringWriter csv) {
+        return csv.toString().lines()
+                .map(line -> line.substring(0, line.lastIndexOf(',')))
+                .sorted()
+                .collect(Collectors.joining("\n"));
+    }
+}
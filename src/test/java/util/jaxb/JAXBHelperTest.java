@@ -0,0 +1,81 @@
+package util.jaxb;
+
+import lepegeto.model.Board;
+import lepegeto.model.Direction;
+import lepegeto.model.GameState;
+import lepegeto.model.Move;
+import lepegeto.model.MoveGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JAXBHelperTest {
+
+    private static GameState movedState() {
+        var state = new GameState();
+        state.makeMove(Move.of(Board.cell(0, 0), Board.cell(0, 2), Direction.SOUTH));
+        return state;
+    }
+
+    @Test
+    void getContext_isCached() throws Exception {
+        assertSame(JAXBHelper.getContext(GameState.class), JAXBHelper.getContext(GameState.class));
+    }
+
+    @Test
+    void roundTrip_stream() throws Exception {
+        var state = movedState();
+        var out = new ByteArrayOutputStream();
+        JAXBHelper.toXML(state, out);
+        var read = JAXBHelper.fromXML(GameState.class, new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(state, read);
+        assertEquals(state.getCurrentPlayer(), read.getCurrentPlayer());
+    }
+
+    @Test
+    void roundTrip_path(@TempDir Path dir) throws Exception {
+        var state = movedState();
+        var path = dir.resolve("save.xml");
+        JAXBHelper.toXML(state, path);
+        JAXBHelper.toXML(state, path);
+        assertEquals(state, JAXBHelper.fromXML(GameState.class, path));
+        assertEquals(state, JAXBHelper.fromXML(GameState.class, path));
+    }
+
+    @Test
+    void fromXMLStream_readsEveryRecord() throws Exception {
+        var states = new ArrayList<GameState>();
+        var state = new GameState();
+        var moves = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < 5; ++i) {
+            states.add(state.clone());
+            MoveGenerator.generate(state.getBoard(), state.getCurrentPlayer(), moves);
+            state.makeMove(moves[i]);
+        }
+        var out = new ByteArrayOutputStream();
+        JAXBHelper.toXMLStream(states, "games", out);
+
+        List<GameState> read;
+        try (var stream = JAXBHelper.fromXMLStream(GameState.class, new ByteArrayInputStream(out.toByteArray()))) {
+            read = stream.collect(Collectors.toList());
+        }
+        assertEquals(states, read);
+    }
+
+    @Test
+    void fromXMLStream_emptyRoot() throws Exception {
+        var out = new ByteArrayOutputStream();
+        JAXBHelper.toXMLStream(List.of(), "games", out);
+        try (var stream = JAXBHelper.fromXMLStream(GameState.class, new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(0, stream.count());
+        }
+    }
+}